@@ -0,0 +1,31 @@
+package de.fluxparticle.wizardfx.benchmark;
+
+import de.fluxparticle.wizardfx.WizardModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst, wie lange es dauert, ein Modell mit {@code steps} × {@code requirements} Requirements zu erzeugen. Der dabei
+ * dauerhaft belegte Speicher wird mit {@link RetainedHeap} gemessen.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConstructionBenchmark {
+
+    @Param({"10", "100"})
+    public int steps;
+
+    @Param({"10", "100"})
+    public int requirements;
+
+    @Benchmark
+    public WizardModel construct() {
+        return Fixtures.model(steps, requirements);
+    }
+
+}
@@ -0,0 +1,53 @@
+package de.fluxparticle.wizardfx.benchmark;
+
+import de.fluxparticle.wizardfx.WizardModel;
+import de.fluxparticle.wizardfx.WizardStep;
+import de.fluxparticle.wizardfx.requirement.SimpleRequirement;
+
+import java.util.Collections;
+
+import static de.fluxparticle.wizardfx.requirement.Validators.notEmpty;
+
+/**
+ * Erzeugt die Modelle für die Benchmarks. Es wird nur das {@link WizardModel} benutzt, damit die Benchmarks ohne
+ * gestartetes JavaFX-Toolkit und ohne Bildschirm laufen. Die Schritte erzeugen ihren Inhalt per Supplier, der nie
+ * aufgerufen wird.
+ */
+final class Fixtures {
+
+    static final String VALID = "valid";
+
+    static final String INVALID = "";
+
+    private Fixtures() {
+    }
+
+    /**
+     * @return ein Modell mit {@code steps} Schritten mit jeweils {@code requirements} gültigen Requirements
+     */
+    static WizardModel model(int steps, int requirements) {
+        WizardStep[] wizardSteps = new WizardStep[steps];
+        for (int i = 0; i < steps; i++) {
+            WizardStep step = new WizardStep("Step " + i, () -> null);
+            for (int j = 0; j < requirements; j++) {
+                SimpleRequirement<String> requirement = new SimpleRequirement<>(notEmpty("required"));
+                requirement.setName("field-" + i + "-" + j);
+                requirement.setInitialValue(VALID);
+                step.getRequirements().add(requirement);
+            }
+            wizardSteps[i] = step;
+        }
+        return new WizardModel(wizardSteps);
+    }
+
+    /**
+     * @return ein Modell wie {@link #model(int, int)}, in dem bereits alle Schritte erreicht wurden,
+     * sodass Finish nur noch von der Gültigkeit abhängt
+     */
+    static WizardModel completedModel(int steps, int requirements) {
+        WizardModel model = model(steps, requirements);
+        model.restore(Collections.emptyMap(), 0, steps - 1);
+        return model;
+    }
+
+}
@@ -0,0 +1,62 @@
+package de.fluxparticle.wizardfx.benchmark;
+
+import de.fluxparticle.wizardfx.requirement.IntRequirement;
+import de.fluxparticle.wizardfx.requirement.SimpleRequirement;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static de.fluxparticle.wizardfx.requirement.Validators.firstError;
+import static de.fluxparticle.wizardfx.requirement.Validators.matches;
+import static de.fluxparticle.wizardfx.requirement.Validators.notEmpty;
+
+/**
+ * Simuliert das Eintippen einer Email-Adresse Zeichen für Zeichen sowie eines Zahlenfeldes. Gedacht für
+ * {@code -prof gc}: {@code gc.alloc.rate.norm} gibt dann an, wie viele Bytes pro Tastendruck angelegt werden.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KeystrokeBenchmark {
+
+    private static final Pattern EMAIL = Pattern.compile("^[\\w.%+-]+@[\\w.-]+\\.[A-Za-z]{2,}$");
+
+    private static final String TYPED = "someone@example.com";
+
+    private final String[] keystrokes = new String[TYPED.length()];
+
+    private SimpleRequirement<String> email;
+
+    private IntRequirement number;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < keystrokes.length; i++) {
+            keystrokes[i] = TYPED.substring(0, i + 1);
+        }
+
+        email = new SimpleRequirement<>(firstError(notEmpty("required"), matches(EMAIL, "must be valid email")));
+        email.setInitialValue("");
+
+        number = new IntRequirement(value -> value > 999 ? "must not be greater than 999" : null);
+    }
+
+    @Benchmark
+    public boolean email() {
+        email.dataProperty().set(keystrokes[index++ % keystrokes.length]);
+        return email.isValid();
+    }
+
+    @Benchmark
+    public boolean number() {
+        number.setValue(index++ & 1023);
+        return number.isValid();
+    }
+
+}
@@ -0,0 +1,82 @@
+package de.fluxparticle.wizardfx.benchmark;
+
+import de.fluxparticle.wizardfx.WizardModel;
+import de.fluxparticle.wizardfx.WizardStep;
+import de.fluxparticle.wizardfx.requirement.SimpleRequirement;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Überprüft, dass {@link WizardModel#dispose()} nichts zurücklässt. Es werden immer wieder Modelle erzeugt, deren
+ * Requirements von einer langlebigen Property und einem langlebigen Requirement abhängen, und sofort wieder entsorgt.
+ * Danach müssen alle Modelle eingesammelt worden sein und der belegte Speicher darf über die Runden nicht wachsen.
+ * Schlägt die Überprüfung fehl, endet das Programm mit Exit-Code 1.
+ *
+ * Aufruf: {@code java -cp target/benchmarks.jar de.fluxparticle.wizardfx.benchmark.LeakCheck [Runden] [Modelle pro Runde]}
+ */
+public class LeakCheck {
+
+    /**
+     * So viel darf der belegte Speicher zwischen der ersten und der letzten Runde schwanken
+     */
+    private static final long TOLERANCE = 1024 * 1024;
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        // Beides lebt länger als die Modelle, wie z.B. eine globale Einstellung der Anwendung
+        BooleanProperty strict = new SimpleBooleanProperty();
+        SimpleRequirement<String> shared = new SimpleRequirement<>(value -> Optional.empty());
+
+        List<WeakReference<WizardModel>> references = new ArrayList<>();
+        long total = 0;
+        long first = 0;
+        long last = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < count; i++) {
+                WizardModel model = model(strict, shared);
+                model.canFinishProperty().get();
+                references.add(new WeakReference<>(model));
+                model.dispose();
+            }
+            total += count;
+            // Ein Requirement darf auch nach dem Entsorgen noch geändert werden
+            strict.set(!strict.get());
+            shared.dataProperty().set("round " + round);
+
+            // Die eingesammelten Referenzen selbst sollen nicht als Wachstum zählen
+            last = RetainedHeap.usedHeap();
+            references.removeIf(reference -> reference.get() == null);
+            last = RetainedHeap.usedHeap();
+            if (round == 0) {
+                first = last;
+            }
+            System.out.printf("round %d: %d bytes used%n", round, last);
+        }
+
+        long alive = references.size();
+        System.out.printf("%d of %d disposed models still reachable, heap grew by %d bytes%n", alive, total, last - first);
+        if (alive > 0 || last - first > TOLERANCE) {
+            System.exit(1);
+        }
+    }
+
+    private static WizardModel model(BooleanProperty strict, SimpleRequirement<String> shared) {
+        WizardModel model = Fixtures.model(3, 10);
+        for (WizardStep step : model.getSteps()) {
+            SimpleRequirement<String> requirement = new SimpleRequirement<>(value -> strict.get() && value.isEmpty() ? Optional.of("required") : Optional.empty());
+            requirement.setInitialValue(Fixtures.VALID);
+            requirement.dependsOn(strict);
+            requirement.dependsOn(shared);
+            step.getRequirements().add(requirement);
+        }
+        return model;
+    }
+
+}
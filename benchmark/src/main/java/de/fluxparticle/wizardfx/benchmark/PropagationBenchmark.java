@@ -0,0 +1,57 @@
+package de.fluxparticle.wizardfx.benchmark;
+
+import de.fluxparticle.wizardfx.WizardModel;
+import de.fluxparticle.wizardfx.WizardStep;
+import de.fluxparticle.wizardfx.requirement.Requirement;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die Zeit von einer einzelnen Änderung an {@link Requirement#dataProperty()} bis die Gültigkeit des Schrittes
+ * und die Freigabe von Finish wieder aktuell sind. Der Wert wechselt bei jedem Aufruf zwischen gültig und ungültig,
+ * sodass jedes Mal beide Zähler umschalten.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PropagationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int steps;
+
+    @Param({"10"})
+    public int requirements;
+
+    private WizardModel model;
+
+    private WizardStep step;
+
+    private Requirement<String> requirement;
+
+    private boolean invalid;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        model = Fixtures.completedModel(steps, requirements);
+        step = model.getSteps().get(0);
+        requirement = (Requirement<String>) step.getRequirements().get(0);
+
+        // Die Bindings sind lazy und werden daher einmal ausgewertet, wie es die Buttons des Wizards tun würden
+        model.canFinishProperty().get();
+    }
+
+    @Benchmark
+    public void change(Blackhole blackhole) {
+        invalid = !invalid;
+        requirement.dataProperty().set(invalid ? Fixtures.INVALID : Fixtures.VALID);
+        blackhole.consume(step.allValidProperty().get());
+        blackhole.consume(model.canFinishProperty().get());
+    }
+
+}
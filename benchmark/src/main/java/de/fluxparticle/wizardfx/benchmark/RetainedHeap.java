@@ -0,0 +1,48 @@
+package de.fluxparticle.wizardfx.benchmark;
+
+import de.fluxparticle.wizardfx.WizardModel;
+
+/**
+ * Misst, wie viel Speicher ein Modell mit N Schritten × M Requirements dauerhaft belegt. JMH misst nur Zeiten und
+ * Allokationen, daher werden hier viele Modelle erzeugt, festgehalten und die Differenz des belegten Speichers nach
+ * einer Garbage Collection durch ihre Anzahl geteilt.
+ *
+ * Aufruf: {@code java -cp target/benchmarks.jar de.fluxparticle.wizardfx.benchmark.RetainedHeap [N] [M] [Anzahl]}
+ */
+public class RetainedHeap {
+
+    public static void main(String[] args) {
+        int steps = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int requirements = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int count = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+
+        // Klassen laden und JIT anwerfen, damit das nicht mitgemessen wird
+        for (int i = 0; i < 10; i++) {
+            Fixtures.model(steps, requirements);
+        }
+
+        long before = usedHeap();
+        WizardModel[] models = new WizardModel[count];
+        for (int i = 0; i < count; i++) {
+            models[i] = Fixtures.model(steps, requirements);
+        }
+        long after = usedHeap();
+
+        System.out.printf("%d steps x %d requirements: %d bytes per model (%d models)%n",
+                steps, requirements, (after - before) / count, models.length);
+    }
+
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
@@ -0,0 +1,47 @@
+package de.fluxparticle.wizardfx.benchmark;
+
+import de.fluxparticle.wizardfx.WizardModel;
+import de.fluxparticle.wizardfx.WizardStep;
+import de.fluxparticle.wizardfx.requirement.Requirement;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst, wie lange es nach einer einzelnen Änderung dauert, bis die Gültigkeit eines Schrittes wieder aktuell ist,
+ * abhängig von der Anzahl der Requirements in diesem Schritt. Die Zeit sollte nicht mit {@code requirements} wachsen.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StepValidityBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int requirements;
+
+    private WizardStep step;
+
+    private Requirement<String> requirement;
+
+    private boolean invalid;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        WizardModel model = Fixtures.model(1, requirements);
+        step = model.getSteps().get(0);
+        requirement = (Requirement<String>) step.getRequirements().get(requirements / 2);
+    }
+
+    @Benchmark
+    public void change(Blackhole blackhole) {
+        invalid = !invalid;
+        requirement.dataProperty().set(invalid ? Fixtures.INVALID : Fixtures.VALID);
+        blackhole.consume(step.allValidProperty().get());
+    }
+
+}
@@ -0,0 +1,55 @@
+package de.fluxparticle.wizardfx.benchmark;
+
+import de.fluxparticle.wizardfx.requirement.Requirement;
+import de.fluxparticle.wizardfx.requirement.SimpleRequirement;
+import de.fluxparticle.wizardfx.requirement.TransformRequirement;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static de.fluxparticle.wizardfx.requirement.Validators.notEmpty;
+
+/**
+ * Misst den Durchsatz einer Kette aus {@code depth} {@link TransformRequirement}s, an deren Ende ein
+ * {@link SimpleRequirement} steht. Die Werte wiederholen sich nicht in kurzen Abständen und werden nicht
+ * zwischengespeichert, sodass jede Änderung durch die ganze Kette läuft.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransformChainBenchmark {
+
+    private static final int VALUES = 1024;
+
+    @Param({"1", "4", "16"})
+    public int depth;
+
+    private Requirement<String> head;
+
+    private final String[] values = new String[VALUES];
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Requirement<String> requirement = new SimpleRequirement<>(notEmpty("required"));
+        for (int i = 0; i < depth; i++) {
+            requirement = new TransformRequirement<>(String::trim, requirement);
+        }
+        head = requirement;
+
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = i % 2 == 0 ? " value " + i + " " : " ";
+        }
+    }
+
+    @Benchmark
+    public boolean change() {
+        head.dataProperty().set(values[index++ & (VALUES - 1)]);
+        return head.isValid();
+    }
+
+}
@@ -0,0 +1,67 @@
+package de.fluxparticle.wizardfx;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hält den Inhalt der zuletzt angezeigten Schritte. Wird die Kapazität überschritten, wird der Inhalt des Schrittes
+ * verworfen, der am längsten nicht mehr angezeigt wurde. Es zählen nur Schritte, deren Inhalt erzeugt wird, da nur
+ * dieser auch wieder verworfen werden kann.
+ */
+class ContentCache {
+
+    private final Map<WizardStep, Boolean> loaded = new LinkedHashMap<>(16, 0.75f, true);
+
+    private int capacity;
+
+    /**
+     * @param capacity maximale Anzahl an Schritten mit erzeugtem Inhalt, deren Inhalt gehalten wird
+     */
+    ContentCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Erzeugt bei Bedarf den Inhalt des Schrittes und markiert ihn als zuletzt benutzt.
+     */
+    void load(WizardStep step) {
+        step.loadContent();
+        if (step.isLazy()) {
+            loaded.put(step, Boolean.TRUE);
+            trim();
+        }
+    }
+
+    /**
+     * Verwirft den Inhalt eines Schrittes, der nicht mehr zum Wizard gehört.
+     */
+    void remove(WizardStep step) {
+        if (loaded.remove(step) != null) {
+            step.unloadContent();
+        }
+    }
+
+    void setCapacity(int capacity) {
+        this.capacity = capacity;
+        trim();
+    }
+
+    /**
+     * Verwirft den Inhalt aller Schritte, sofern er später wieder erzeugt werden kann.
+     */
+    void clear() {
+        loaded.keySet().forEach(WizardStep::unloadContent);
+        loaded.clear();
+    }
+
+    private void trim() {
+        Iterator<WizardStep> iterator = loaded.keySet().iterator();
+        while (loaded.size() > Math.max(capacity, 1) && iterator.hasNext()) {
+            WizardStep eldest = iterator.next();
+            iterator.remove();
+            eldest.unloadContent();
+        }
+    }
+
+}
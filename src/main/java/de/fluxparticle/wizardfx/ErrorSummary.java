@@ -0,0 +1,236 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.Requirement;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Hält die Fehlermeldungen aller Requirements eines Schrittes in der Reihenfolge der Requirements. Ändert sich eine
+ * Fehlermeldung, wird nur dieser eine Eintrag per Binärsuche gefunden und entfernt bzw. eingefügt, sodass die Liste
+ * nur genau diese Änderung meldet.
+ *
+ * Kommt ein Requirement mehrfach vor, gibt es dafür nur einen Eintrag an der Stelle seines ersten Vorkommens. Er
+ * bleibt erhalten, bis das letzte Vorkommen entfernt wurde.
+ */
+class ErrorSummary {
+
+    private final WizardStep step;
+
+    private final ObservableList<RequirementError> errors = FXCollections.observableArrayList();
+
+    private final ObservableList<RequirementError> unmodifiableErrors = FXCollections.unmodifiableObservableList(errors);
+
+    private final Map<Requirement<?>, Entry> entries = new IdentityHashMap<>();
+
+    /**
+     * Position jedes Requirements in der Liste des Schrittes. Wird bei Änderungen der Liste erst dann neu berechnet,
+     * wenn sie wieder gebraucht wird. Werden Requirements nur hinten angehängt, werden nur diese eingetragen.
+     */
+    private final Map<Requirement<?>, Integer> positions = new IdentityHashMap<>();
+
+    private boolean positionsValid;
+
+    private final Comparator<RequirementError> order = Comparator.comparingInt(error -> positions.get(error.getRequirement()));
+
+    private ObservableList<Requirement<?>> requirements;
+
+    private final ListChangeListener<Requirement<?>> listener = this::requirementsChanged;
+
+    ErrorSummary(WizardStep step) {
+        this.step = step;
+    }
+
+    /**
+     * Verfolgt die Fehlermeldungen aller Requirements der Liste und hält die Einträge bei Änderungen der Liste aktuell.
+     */
+    void track(ObservableList<Requirement<?>> requirements) {
+        this.requirements = requirements;
+        positionsValid = false;
+        requirements.forEach(this::add);
+        requirements.addListener(listener);
+    }
+
+    ObservableList<RequirementError> getErrors() {
+        return unmodifiableErrors;
+    }
+
+    /**
+     * Meldet alle Listener ab und leert die Liste.
+     */
+    void dispose() {
+        if (requirements != null) {
+            requirements.removeListener(listener);
+        }
+        entries.values().forEach(Entry::dispose);
+        entries.clear();
+        errors.clear();
+    }
+
+    private void requirementsChanged(ListChangeListener.Change<? extends Requirement<?>> change) {
+        // Wird umsortiert oder bleibt von einem Requirement ein anderes Vorkommen übrig, kann sich die Reihenfolge ändern
+        boolean moved = false;
+        boolean appended = true;
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                moved = true;
+            }
+            if (change.wasRemoved() || change.wasPermutated() || change.getTo() != requirements.size()) {
+                appended = false;
+            }
+            for (Requirement<?> requirement : change.getRemoved()) {
+                Entry entry = entries.get(requirement);
+                if (entry == null) {
+                    continue;
+                }
+                if (--entry.count > 0) {
+                    moved = true;
+                } else {
+                    entries.remove(requirement);
+                    entry.dispose();
+                    if (entry.error != null) {
+                        errors.remove(entry.error);
+                    }
+                }
+            }
+        }
+
+        // Erst wenn alle Positionen stimmen, können neue Einträge per Binärsuche eingefügt werden
+        if (appended && positionsValid) {
+            change.reset();
+            while (change.next()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    positions.putIfAbsent(requirements.get(i), i);
+                }
+            }
+        } else {
+            positionsValid = false;
+            change.reset();
+            while (change.next()) {
+                for (Requirement<?> requirement : change.getAddedSubList()) {
+                    if (entries.containsKey(requirement)) {
+                        moved = true;
+                    }
+                }
+            }
+        }
+
+        // Neue Einträge werden per Binärsuche eingefügt, dafür muss die Liste vorher wieder sortiert sein
+        if (moved) {
+            updatePositions();
+            FXCollections.sort(errors, order);
+        }
+
+        change.reset();
+        while (change.next()) {
+            change.getAddedSubList().forEach(this::add);
+        }
+    }
+
+    private void updatePositions() {
+        if (positionsValid) {
+            return;
+        }
+        positions.clear();
+        for (int i = requirements.size() - 1; i >= 0; i--) {
+            positions.put(requirements.get(i), i);
+        }
+        positionsValid = true;
+    }
+
+    private void add(Requirement<?> requirement) {
+        Entry entry = entries.get(requirement);
+        if (entry == null) {
+            entry = new Entry(requirement);
+            entries.put(requirement, entry);
+            entry.update(requirement.errorProperty().getValue());
+        }
+        entry.count++;
+    }
+
+    /**
+     * @return Index des Eintrags bzw. {@code -(Einfügeposition) - 1}, wie bei {@link java.util.Collections#binarySearch}
+     */
+    private int search(RequirementError error) {
+        updatePositions();
+        int low = 0;
+        int high = errors.size() - 1;
+        int position = positions.get(error.getRequirement());
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midPosition = positions.get(errors.get(mid).getRequirement());
+            if (midPosition < position) {
+                low = mid + 1;
+            } else if (midPosition > position) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Hört auf die Fehlermeldung eines Requirements und merkt sich den aktuellen Eintrag dazu und wie oft das
+     * Requirement vorkommt.
+     */
+    private class Entry implements ChangeListener<Optional<String>> {
+
+        private final Requirement<?> requirement;
+
+        private RequirementError error;
+
+        private int count;
+
+        /**
+         * Der zuletzt erzeugte Eintrag. Wechselt ein Wert zwischen gültig und ungültig, wird er wiederverwendet.
+         */
+        private RequirementError last;
+
+        private Entry(Requirement<?> requirement) {
+            this.requirement = requirement;
+            requirement.errorProperty().addListener(this);
+        }
+
+        @Override
+        public void changed(ObservableValue<? extends Optional<String>> observable, Optional<String> oldValue, Optional<String> newValue) {
+            update(newValue);
+        }
+
+        private void update(Optional<String> message) {
+            RequirementError newError = null;
+            if (message != null && message.isPresent()) {
+                if (last == null || !last.getMessage().equals(message.get())) {
+                    last = new RequirementError(step, requirement, message.get());
+                }
+                newError = last;
+            }
+
+            if (error == newError) {
+                return;
+            }
+
+            if (error == null) {
+                errors.add(-search(newError) - 1, newError);
+            } else if (newError == null) {
+                errors.remove(search(error));
+            } else {
+                errors.set(search(error), newError);
+            }
+            error = newError;
+        }
+
+        private void dispose() {
+            requirement.errorProperty().removeListener(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,237 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.Requirement;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * Überprüft beim Abschließen alle Requirements der nicht übersprungenen Schritte noch einmal abschließend mit
+ * {@link Requirement#validateFinal(Object)}. Die Werte und ihre aktuellen Fehlermeldungen werden vorher im JavaFX
+ * Application Thread gelesen, danach werden die fehlerfreien Werte in Paketen parallel auf einem {@link Executor}
+ * überprüft. Die Ergebnisse werden im JavaFX Application Thread gesammelt.
+ */
+class FinishPipeline {
+
+    /**
+     * So viele Requirements werden in einer Aufgabe überprüft
+     */
+    private static final int CHUNK_SIZE = 64;
+
+    private final WizardModel model;
+
+    private final Executor publisher;
+
+    private final ReadOnlyBooleanWrapper running = new ReadOnlyBooleanWrapper(false);
+
+    private final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(0);
+
+    private final List<FutureTask<List<RequirementError>>> tasks = new ArrayList<>();
+
+    /**
+     * Wird bei jedem Start und Abbruch erhöht, damit Ergebnisse eines abgebrochenen Durchlaufs ignoriert werden
+     */
+    private int generation;
+
+    /**
+     * @param model liefert die Schritte und deren Requirements
+     * @param publisher übergibt die Ergebnisse an den JavaFX Application Thread
+     */
+    FinishPipeline(WizardModel model, Executor publisher) {
+        this.model = model;
+        this.publisher = publisher;
+    }
+
+    /**
+     * Startet einen neuen Durchlauf. Ein laufender Durchlauf wird abgebrochen.
+     *
+     * @param executor hier wird überprüft
+     * @param done bekommt alle Fehler in der Reihenfolge der Schritte und Requirements, falls der Durchlauf nicht
+     *             abgebrochen wird
+     */
+    void start(Executor executor, Consumer<List<RequirementError>> done) {
+        cancel();
+        int current = ++generation;
+
+        List<Chunk> chunks = snapshot();
+        List<List<RequirementError>> results = new ArrayList<>(Collections.nCopies(chunks.size(), null));
+        int[] remaining = { chunks.size() };
+
+        running.set(true);
+        progress.set(0);
+        if (chunks.isEmpty()) {
+            complete(results, done);
+            return;
+        }
+
+        for (int i = 0; i < chunks.size(); i++) {
+            int index = i;
+            FutureTask<List<RequirementError>> task = new FutureTask<List<RequirementError>>(chunks.get(i)::validate) {
+                @Override
+                protected void done() {
+                    List<RequirementError> result = result(this, chunks.get(index));
+                    if (result == null) {
+                        return;
+                    }
+                    publisher.execute(() -> {
+                        if (current != generation) {
+                            return;
+                        }
+                        results.set(index, result);
+                        remaining[0]--;
+                        progress.set(1 - (double) remaining[0] / chunks.size());
+                        if (remaining[0] == 0) {
+                            complete(results, done);
+                        }
+                    });
+                }
+            };
+            tasks.add(task);
+        }
+
+        // Über eine Kopie, da ein synchroner Executor den Durchlauf schon währenddessen abschließen kann
+        new ArrayList<>(tasks).forEach(executor::execute);
+    }
+
+    /**
+     * Bricht einen laufenden Durchlauf ab. Dessen Ergebnis wird nicht mehr gemeldet.
+     */
+    void cancel() {
+        generation++;
+        tasks.forEach(task -> task.cancel(true));
+        tasks.clear();
+        running.set(false);
+        progress.set(0);
+    }
+
+    /**
+     * @return {@code true}, solange ein Durchlauf läuft
+     */
+    ReadOnlyBooleanProperty runningProperty() {
+        return running.getReadOnlyProperty();
+    }
+
+    /**
+     * @return Anteil der bereits überprüften Pakete zwischen 0 und 1
+     */
+    ReadOnlyDoubleProperty progressProperty() {
+        return progress.getReadOnlyProperty();
+    }
+
+    private void complete(List<List<RequirementError>> results, Consumer<List<RequirementError>> done) {
+        tasks.clear();
+        running.set(false);
+        progress.set(1);
+
+        List<RequirementError> errors = new ArrayList<>();
+        results.forEach(errors::addAll);
+        done.accept(errors);
+    }
+
+    private List<Chunk> snapshot() {
+        List<Chunk> chunks = new ArrayList<>();
+        for (WizardStep step : model.getSteps()) {
+            if (!step.isEnabled()) {
+                continue;
+            }
+            List<Requirement<?>> requirements = step.getRequirements();
+            for (int from = 0; from < requirements.size(); from += CHUNK_SIZE) {
+                int to = Math.min(from + CHUNK_SIZE, requirements.size());
+                chunks.add(new Chunk(step, requirements.subList(from, to)));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * @return das Ergebnis der Aufgabe oder {@code null}, wenn sie abgebrochen wurde
+     */
+    private static List<RequirementError> result(FutureTask<List<RequirementError>> task, Chunk chunk) {
+        try {
+            return task.get();
+        } catch (CancellationException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return chunk.failed(e.getCause());
+        }
+    }
+
+    /**
+     * Einige aufeinanderfolgende Requirements eines Schrittes mit ihren Werten und Fehlermeldungen zum Zeitpunkt des
+     * Starts. Im anderen Thread wird nur noch {@link Requirement#validateFinal(Object)} aufgerufen.
+     */
+    private static class Chunk {
+
+        private final WizardStep step;
+
+        private final List<Requirement<?>> requirements;
+
+        private final List<Object> values = new ArrayList<>();
+
+        private final List<Optional<String>> currentErrors = new ArrayList<>();
+
+        private final List<RequirementError> errors = new ArrayList<>();
+
+        /**
+         * Das Requirement, das gerade überprüft wird
+         */
+        private int position;
+
+        private Chunk(WizardStep step, List<Requirement<?>> requirements) {
+            this.step = step;
+            this.requirements = new ArrayList<>(requirements);
+            this.requirements.forEach(requirement -> {
+                values.add(requirement.dataProperty().getValue());
+                currentErrors.add(requirement.errorProperty().getValue());
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<RequirementError> validate() throws InterruptedException {
+            for (position = 0; position < requirements.size(); position++) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                Requirement<Object> requirement = (Requirement<Object>) requirements.get(position);
+                // Ohne Wert ist die Fehlermeldung null, validateFinal(Object) liefert dann eine leere
+                Optional<String> error = currentErrors.get(position);
+                if (error == null || !error.isPresent()) {
+                    try {
+                        error = requirement.validateFinal(values.get(position));
+                    } catch (RuntimeException e) {
+                        // Ein Validator, der abstürzt, lässt das Abschließen an diesem Requirement scheitern
+                        error = Optional.of(String.valueOf(e));
+                    }
+                }
+                error.ifPresent(message -> errors.add(new RequirementError(step, requirement, message)));
+            }
+            return errors;
+        }
+
+        /**
+         * @param cause ein {@link Error}, mit dem {@link #validate()} abgebrochen ist
+         * @return die bis dahin gefundenen Fehler und einen Fehler für das Requirement, bei dem abgebrochen wurde
+         */
+        private List<RequirementError> failed(Throwable cause) {
+            List<RequirementError> result = new ArrayList<>(errors);
+            result.add(new RequirementError(step, requirements.get(position), String.valueOf(cause)));
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.Requirement;
+
+/**
+ * Eine Fehlermeldung eines Requirements, siehe {@link WizardStep#getErrors()} und {@link WizardModel#getErrors()}.
+ * Ändert sich die Fehlermeldung, wird ein neuer Eintrag erzeugt.
+ */
+public final class RequirementError {
+
+    private final WizardStep step;
+
+    private final Requirement<?> requirement;
+
+    private final String message;
+
+    RequirementError(WizardStep step, Requirement<?> requirement, String message) {
+        this.step = step;
+        this.requirement = requirement;
+        this.message = message;
+    }
+
+    public WizardStep getStep() {
+        return step;
+    }
+
+    public Requirement<?> getRequirement() {
+        return requirement;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        String name = requirement.getName();
+        return name != null ? name + ": " + message : message;
+    }
+
+}
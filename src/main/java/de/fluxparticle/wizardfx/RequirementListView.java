@@ -0,0 +1,152 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.Requirement;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
+import javafx.beans.property.Property;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.VBox;
+import javafx.util.StringConverter;
+import javafx.util.converter.DefaultStringConverter;
+import org.fxmisc.easybind.EasyBind;
+import org.fxmisc.easybind.monadic.MonadicBinding;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Zeigt zu jedem Requirement einer Liste eine Zeile mit Name und Textfeld an, für Schritte mit sehr vielen
+ * Requirements. Wie bei jeder {@link ListView} gibt es nur für die sichtbaren Zeilen Nodes und Bindungen. Werte und
+ * Fehlermeldungen liegen in den Requirements selbst, sodass die Gültigkeit des Schrittes auch für Zeilen stimmt,
+ * die gerade nicht sichtbar sind.
+ *
+ * Solange die Liste in keiner Szene hängt, z.B. weil gerade ein anderer Schritt angezeigt wird, sind die Zeilen
+ * von ihren Requirements gelöst. Der Inhalt kann daher verworfen werden, ohne dass die Requirements ihn festhalten.
+ *
+ * @param <T> Typ der Werte aller Requirements in der Liste
+ */
+public class RequirementListView<T> extends ListView<Requirement<?>> {
+
+    private static final String STYLE_NORMAL = "";
+
+    private static final String STYLE_ERROR = "-fx-background-color: lightcoral";
+
+    private final StringConverter<T> converter;
+
+    private final BooleanBinding showing = sceneProperty().isNotNull();
+
+    /**
+     * @param requirements die Requirements, die angezeigt werden. Alle müssen Werte vom Typ T haben.
+     * @param converter wandelt die Werte in den Text der Textfelder um und zurück
+     */
+    public RequirementListView(ObservableList<Requirement<?>> requirements, StringConverter<T> converter) {
+        super(requirements);
+        this.converter = converter;
+        setCellFactory(listView -> new RequirementCell());
+    }
+
+    /**
+     * @param requirements die Requirements, die angezeigt werden. Alle müssen Werte vom Typ String haben.
+     */
+    public static RequirementListView<String> ofStrings(ObservableList<Requirement<?>> requirements) {
+        return new RequirementListView<>(requirements, new DefaultStringConverter());
+    }
+
+    /**
+     * Erzeugt einen Schritt, dessen Inhalt eine {@link RequirementListView} über seine eigenen Requirements ist.
+     * Der Inhalt wird erst erzeugt, wenn der Schritt angezeigt wird.
+     *
+     * @param text Name des Schritts
+     * @param converter wandelt die Werte in den Text der Textfelder um und zurück
+     */
+    public static <T> WizardStep step(String text, StringConverter<T> converter) {
+        StepContent<T> content = new StepContent<>(converter);
+        WizardStep step = new WizardStep(text, content);
+        content.step = step;
+        return step;
+    }
+
+    /**
+     * Erzeugt den Inhalt für {@link #step(String, StringConverter)}. Der Schritt wird erst nach seiner Erzeugung
+     * gesetzt, da er selbst diese Factory bekommt.
+     */
+    private static class StepContent<T> implements Supplier<Node> {
+
+        private final StringConverter<T> converter;
+
+        private WizardStep step;
+
+        private StepContent(StringConverter<T> converter) {
+            this.converter = converter;
+        }
+
+        @Override
+        public Node get() {
+            return new RequirementListView<>(step.getRequirements(), converter);
+        }
+
+    }
+
+    /**
+     * Eine Zeile. Name, Tooltip und Style folgen automatisch dem Requirement, das die Zeile gerade anzeigt. Nur das
+     * Textfeld muss beim Wechsel des Requirements neu gebunden werden.
+     */
+    private class RequirementCell extends ListCell<Requirement<?>> {
+
+        private final TextField textField = new TextField();
+
+        private final VBox box;
+
+        private Property<T> boundData;
+
+        private RequirementCell() {
+            setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+
+            // Das angezeigte Requirement, aber nur, solange die Liste zu sehen ist
+            MonadicBinding<Requirement<?>> shown = EasyBind.combine(itemProperty(), showing,
+                    (item, isShowing) -> isShowing ? item : null);
+
+            Label label = new Label();
+            label.textProperty().bind(EasyBind.select(shown).selectObject(Requirement::nameProperty));
+
+            MonadicBinding<Optional<String>> errorText = EasyBind.select(shown).selectObject(Requirement::errorProperty);
+
+            // Die Fehlermeldung als Tooltip anzeigen.
+            textField.tooltipProperty().bind(errorText.map(error -> error.map(Tooltip::new).orElse(null)));
+
+            // Durch den Style anzeigen, dass dieses Feld fehlerhaft ist.
+            textField.styleProperty().bind(errorText.map(error -> error.isPresent() ? STYLE_ERROR : STYLE_NORMAL).orElse(STYLE_NORMAL));
+
+            shown.addListener((observable, oldValue, newValue) -> bindText(newValue));
+
+            box = new VBox(2, label, textField);
+        }
+
+        @Override
+        protected void updateItem(Requirement<?> item, boolean empty) {
+            super.updateItem(item, empty);
+            setGraphic(empty || item == null ? null : box);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void bindText(Requirement<?> requirement) {
+            if (boundData != null) {
+                Bindings.unbindBidirectional(textField.textProperty(), boundData);
+                boundData = null;
+            }
+            if (requirement != null) {
+                boundData = ((Requirement<T>) requirement).dataProperty();
+                Bindings.bindBidirectional(textField.textProperty(), boundData, converter);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,344 @@
+package de.fluxparticle.wizardfx;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import org.fxmisc.easybind.Subscription;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Zeigt für jeden Schritt einen Kreis an, die durch Linien verbunden sind. Alles wird auf ein einziges {@link Canvas}
+ * gezeichnet, und zwar nur der gerade sichtbare Ausschnitt. Passen nicht alle Schritte in die Breite, kann mit dem
+ * Mausrad gescrollt werden. Ändert sich der Zustand eines Schrittes, wird nur dessen Kreis neu gezeichnet.
+ * Übersprungene Schritte werden grau dargestellt.
+ */
+class StepIndicator extends Region {
+
+    private static final double RADIUS = 10;
+
+    private static final double STROKE_WIDTH = 3;
+
+    private static final double LINE_LENGTH = 100;
+
+    /**
+     * Breite eines Kreises inklusive Rand
+     */
+    private static final double CIRCLE_WIDTH = 2 * RADIUS + STROKE_WIDTH;
+
+    /**
+     * Abstand von einem Kreismittelpunkt zum nächsten
+     */
+    private static final double PITCH = CIRCLE_WIDTH + LINE_LENGTH;
+
+    private final WizardModel model;
+
+    private final ObservableList<WizardStep> steps;
+
+    /**
+     * Ein Listener auf die Gültigkeit jedes Schrittes, der nur den Kreis dieses Schrittes neu zeichnet
+     */
+    private final Map<WizardStep, InvalidationListener> validityListeners = new IdentityHashMap<>();
+
+    private final ReadOnlyIntegerProperty progress;
+
+    private final ReadOnlyIntegerProperty active;
+
+    private final Canvas canvas = new Canvas();
+
+    /**
+     * Wie weit nach rechts gescrollt wurde
+     */
+    private double offset;
+
+    private Subscription subscription = Subscription.EMPTY;
+
+    /**
+     * @param model liefert die Schritte, den Fortschritt und den gerade angezeigten Schritt,
+     *              der bei einem Klick umgeschaltet wird
+     */
+    StepIndicator(WizardModel model) {
+        this.model = model;
+        this.steps = model.getSteps();
+        this.progress = model.progressProperty();
+        this.active = model.activeProperty();
+
+        getChildren().add(canvas);
+        setMaxWidth(Double.MAX_VALUE);
+
+        // Jenachdem, ob alle Anforderungen des jeweiligen Schrittes erfüllt sind, wird der Kreis grün oder rot
+        steps.forEach(this::watch);
+
+        /*
+         * Werden Schritte hinzugefügt oder entfernt, werden nur deren Listener an- bzw. abgemeldet und der sichtbare
+         * Ausschnitt neu gezeichnet. Wird ein Schritt übersprungen, wird nur sein Kreis neu gezeichnet.
+         */
+        ListChangeListener<WizardStep> stepsListener = change -> {
+            boolean structural = false;
+            while (change.next()) {
+                if (change.wasUpdated()) {
+                    for (int i = change.getFrom(); i < change.getTo(); i++) {
+                        drawCircle(i);
+                    }
+                } else {
+                    change.getRemoved().forEach(this::unwatch);
+                    change.getAddedSubList().forEach(this::watch);
+                    structural = true;
+                }
+            }
+            if (structural) {
+                requestLayout();
+                offset = clampOffset(offset);
+                if (!scrollTo(active.get())) {
+                    drawAll();
+                }
+            }
+        };
+        steps.addListener(stepsListener);
+        subscription = subscription.and(() -> steps.removeListener(stepsListener));
+        subscription = subscription.and(() -> {
+            validityListeners.forEach((step, listener) -> step.allValidProperty().removeListener(listener));
+            validityListeners.clear();
+        });
+
+        // Alle bearbeiteten Seiten bekommen die Farbe entsprechend ihrer Gültigkeit, alle anderen sind schwarz
+        listen(progress, (observable, oldValue, newValue) -> {
+            int from = Math.min(oldValue.intValue(), newValue.intValue());
+            int to = Math.max(oldValue.intValue(), newValue.intValue());
+            for (int i = from; i <= to; i++) {
+                drawCircle(i);
+            }
+        });
+
+        // Die aktuelle Seite wird ausgefüllt und bleibt immer sichtbar
+        listen(active, (observable, oldValue, newValue) -> {
+            if (!scrollTo(newValue.intValue())) {
+                drawCircle(oldValue.intValue());
+                drawCircle(newValue.intValue());
+            }
+        });
+
+        // Nur Kreise im schon bearbeiteten Bereich schalten bei einem Klick auf die jeweilige Seite um
+        canvas.addEventHandler(MouseEvent.MOUSE_CLICKED, event -> {
+            int index = indexAt(event.getX(), event.getY());
+            if (index >= 0) {
+                model.select(index);
+            }
+        });
+
+        canvas.addEventHandler(ScrollEvent.SCROLL, event -> {
+            double delta = event.getDeltaX() != 0 ? event.getDeltaX() : event.getDeltaY();
+            if (setOffset(offset - delta)) {
+                event.consume();
+            }
+        });
+    }
+
+    /**
+     * Meldet alle Listener an den Schritten und am Modell ab.
+     */
+    void dispose() {
+        subscription.unsubscribe();
+        subscription = Subscription.EMPTY;
+    }
+
+    private void watch(WizardStep step) {
+        InvalidationListener listener = observable -> drawStep(step);
+        if (validityListeners.putIfAbsent(step, listener) == null) {
+            step.allValidProperty().addListener(listener);
+        }
+    }
+
+    private void unwatch(WizardStep step) {
+        InvalidationListener listener = validityListeners.remove(step);
+        if (listener != null) {
+            step.allValidProperty().removeListener(listener);
+        }
+    }
+
+    private <T> void listen(ObservableValue<T> observable, ChangeListener<? super T> listener) {
+        observable.addListener(listener);
+        subscription = subscription.and(() -> observable.removeListener(listener));
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return snappedLeftInset() + totalWidth() + snappedRightInset();
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return snappedTopInset() + CIRCLE_WIDTH + snappedBottomInset();
+    }
+
+    @Override
+    protected double computeMinWidth(double height) {
+        return snappedLeftInset() + CIRCLE_WIDTH + snappedRightInset();
+    }
+
+    @Override
+    protected double computeMinHeight(double width) {
+        return computePrefHeight(width);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = getWidth() - snappedLeftInset() - snappedRightInset();
+        double height = getHeight() - snappedTopInset() - snappedBottomInset();
+        canvas.relocate(snappedLeftInset(), snappedTopInset());
+        if (canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            if (!scrollTo(active.get())) {
+                drawAll();
+            }
+        }
+    }
+
+    private double totalWidth() {
+        return steps.isEmpty() ? 0 : steps.size() * PITCH - LINE_LENGTH;
+    }
+
+    /**
+     * Sind alle Schritte sichtbar, werden sie zentriert.
+     */
+    private double origin() {
+        return Math.max(0, (canvas.getWidth() - totalWidth()) / 2);
+    }
+
+    private double centerX(int index) {
+        return origin() + index * PITCH + CIRCLE_WIDTH / 2 - offset;
+    }
+
+    private double centerY() {
+        return canvas.getHeight() / 2;
+    }
+
+    private int indexAt(double x, double y) {
+        double position = (x + offset - origin() - CIRCLE_WIDTH / 2) / PITCH;
+        int index = (int) Math.round(position);
+        if (index < 0 || index >= steps.size()) {
+            return -1;
+        }
+        double dx = x - centerX(index);
+        double dy = y - centerY();
+        double r = CIRCLE_WIDTH / 2;
+        return dx * dx + dy * dy <= r * r ? index : -1;
+    }
+
+    /**
+     * @return {@code true}, wenn sich der Ausschnitt geändert hat und damit alles neu gezeichnet wurde
+     */
+    private boolean setOffset(double newOffset) {
+        double clamped = clampOffset(newOffset);
+        if (clamped == offset) {
+            return false;
+        }
+        offset = clamped;
+        drawAll();
+        return true;
+    }
+
+    private double clampOffset(double newOffset) {
+        double maxOffset = Math.max(0, totalWidth() - canvas.getWidth());
+        return Math.max(0, Math.min(newOffset, maxOffset));
+    }
+
+    /**
+     * Scrollt so, dass der Kreis des Schrittes sichtbar ist.
+     *
+     * @return {@code true}, wenn dafür gescrollt werden musste
+     */
+    private boolean scrollTo(int index) {
+        double left = centerX(index) - CIRCLE_WIDTH / 2;
+        double right = centerX(index) + CIRCLE_WIDTH / 2;
+        if (left < 0) {
+            return setOffset(offset + left);
+        }
+        if (right > canvas.getWidth()) {
+            return setOffset(offset + right - canvas.getWidth());
+        }
+        return false;
+    }
+
+    /**
+     * Zeichnet den Kreis eines Schrittes neu, sofern er gerade sichtbar ist. Dafür wird nur der sichtbare Ausschnitt
+     * nach dem Schritt durchsucht.
+     */
+    private void drawStep(WizardStep step) {
+        for (int i = firstVisible(), last = lastVisible(); i <= last; i++) {
+            if (steps.get(i) == step) {
+                drawCircle(i);
+            }
+        }
+    }
+
+    private int firstVisible() {
+        return Math.max(0, (int) Math.floor((offset - origin()) / PITCH));
+    }
+
+    private int lastVisible() {
+        return Math.min(steps.size() - 1, (int) Math.ceil((offset - origin() + canvas.getWidth()) / PITCH));
+    }
+
+    private void drawAll() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        if (steps.isEmpty()) {
+            return;
+        }
+
+        int first = firstVisible();
+        int last = lastVisible();
+
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
+        for (int i = first; i < last; i++) {
+            double x = centerX(i);
+            gc.strokeLine(x + CIRCLE_WIDTH / 2, centerY(), x + PITCH - CIRCLE_WIDTH / 2, centerY());
+        }
+
+        for (int i = first; i <= last; i++) {
+            drawCircle(i);
+        }
+    }
+
+    private void drawCircle(int index) {
+        if (index < 0 || index >= steps.size()) {
+            return;
+        }
+
+        double x = centerX(index);
+        if (x + CIRCLE_WIDTH / 2 < 0 || x - CIRCLE_WIDTH / 2 > canvas.getWidth()) {
+            return;
+        }
+
+        WizardStep step = steps.get(index);
+        Color color = !step.isEnabled() ? Color.LIGHTGRAY : step.allValidProperty().get() ? Color.GREEN : Color.RED;
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(x - CIRCLE_WIDTH / 2, centerY() - CIRCLE_WIDTH / 2, CIRCLE_WIDTH, CIRCLE_WIDTH);
+
+        // Die aktuelle Seite bekommt die Farbe entsprechend ihrer Gültigkeit, alle anderen sind durchsichtig
+        if (index == active.get()) {
+            gc.setFill(color);
+            gc.fillOval(x - RADIUS, centerY() - RADIUS, 2 * RADIUS, 2 * RADIUS);
+        }
+
+        gc.setStroke(index <= progress.get() || !step.isEnabled() ? color : Color.BLACK);
+        gc.setLineWidth(STROKE_WIDTH);
+        gc.strokeOval(x - RADIUS, centerY() - RADIUS, 2 * RADIUS, 2 * RADIUS);
+    }
+
+}
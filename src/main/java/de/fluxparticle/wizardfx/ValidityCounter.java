@@ -0,0 +1,156 @@
+package de.fluxparticle.wizardfx;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.fxmisc.easybind.Subscription;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Zählt, wie viele Elemente ungültig sind. Ändert sich die Gültigkeit eines Elements, wird nur dieses eine Element
+ * betrachtet, sodass die Kosten nicht mit der Anzahl der Elemente wachsen.
+ *
+ * @param <E> Typ der Elemente
+ */
+class ValidityCounter<E> {
+
+    private final Function<? super E, ? extends ObservableValue<Boolean>> validity;
+
+    private final Map<E, Entry> entries = new IdentityHashMap<>();
+
+    private final ReadOnlyBooleanWrapper allValid = new ReadOnlyBooleanWrapper(true);
+
+    private int invalidCount;
+
+    private Subscription subscription = Subscription.EMPTY;
+
+    private IntConsumer recomputeListener;
+
+    /**
+     * @param validity liefert zu jedem Element dessen Gültigkeit
+     */
+    ValidityCounter(Function<? super E, ? extends ObservableValue<Boolean>> validity) {
+        this.validity = validity;
+    }
+
+    /**
+     * Zählt alle Elemente der Liste und hält den Zähler bei Änderungen der Liste aktuell.
+     */
+    void track(ObservableList<? extends E> list) {
+        list.forEach(this::add);
+        ListChangeListener<E> listener = change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::remove);
+                change.getAddedSubList().forEach(this::add);
+            }
+        };
+        list.addListener(listener);
+        subscription = subscription.and(() -> list.removeListener(listener));
+    }
+
+    void add(E element) {
+        Entry entry = entries.get(element);
+        if (entry == null) {
+            entry = new Entry(validity.apply(element));
+            entries.put(element, entry);
+        }
+        entry.count++;
+        if (!entry.valid) {
+            changeInvalidCount(+1);
+        }
+    }
+
+    void remove(E element) {
+        Entry entry = entries.get(element);
+        if (entry == null) {
+            return;
+        }
+        entry.count--;
+        if (!entry.valid) {
+            changeInvalidCount(-1);
+        }
+        if (entry.count == 0) {
+            entry.dispose();
+            entries.remove(element);
+        }
+    }
+
+    /**
+     * Meldet alle Listener ab. Danach wird nicht mehr gezählt.
+     */
+    void dispose() {
+        subscription.unsubscribe();
+        subscription = Subscription.EMPTY;
+        entries.values().forEach(Entry::dispose);
+        entries.clear();
+        invalidCount = 0;
+        allValid.set(true);
+    }
+
+    /**
+     * @param recomputeListener bekommt nach jeder Neuberechnung die Anzahl der ungültigen Elemente oder {@code null}
+     */
+    void setRecomputeListener(IntConsumer recomputeListener) {
+        this.recomputeListener = recomputeListener;
+    }
+
+    int getInvalidCount() {
+        return invalidCount;
+    }
+
+    ReadOnlyBooleanProperty allValidProperty() {
+        return allValid.getReadOnlyProperty();
+    }
+
+    private void changeInvalidCount(int delta) {
+        invalidCount += delta;
+        allValid.set(invalidCount == 0);
+        if (recomputeListener != null) {
+            recomputeListener.accept(invalidCount);
+        }
+    }
+
+    /**
+     * Merkt sich die zuletzt gesehene Gültigkeit eines Elements und wie oft es vorkommt.
+     */
+    private class Entry implements ChangeListener<Boolean> {
+
+        private final ObservableValue<Boolean> observable;
+
+        private boolean valid;
+
+        private int count;
+
+        private Entry(ObservableValue<Boolean> observable) {
+            this.observable = observable;
+            this.valid = isTrue(observable.getValue());
+            observable.addListener(this);
+        }
+
+        @Override
+        public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) {
+            boolean nowValid = isTrue(newValue);
+            if (nowValid != valid) {
+                valid = nowValid;
+                changeInvalidCount(valid ? -count : +count);
+            }
+        }
+
+        private void dispose() {
+            observable.removeListener(this);
+        }
+
+    }
+
+    private static boolean isTrue(Boolean value) {
+        return value == null || value;
+    }
+
+}
@@ -1,95 +1,207 @@
 package de.fluxparticle.wizardfx;
 
+import de.fluxparticle.wizardfx.requirement.Requirement;
+import de.fluxparticle.wizardfx.requirement.ValidationMonitor;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.binding.ObjectBinding;
 import javafx.beans.property.*;
-import javafx.beans.value.ObservableValue;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Group;
 import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
 import javafx.scene.control.Button;
-import javafx.scene.input.MouseEvent;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.*;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
-import javafx.scene.shape.HLineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
 import org.fxmisc.easybind.EasyBind;
-import org.fxmisc.easybind.monadic.MonadicBinding;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
+import javax.management.JMException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * Created by sreinck on 15.09.17.
  */
 public class Wizard extends BorderPane {
 
-    private final List<WizardStep> steps;
+    private final WizardModel model;
 
-    private final IntegerProperty progress = new SimpleIntegerProperty(0);
+    /**
+     * {@code true}, wenn das Modell von diesem Wizard erzeugt wurde und daher mit ihm entsorgt wird
+     */
+    private final boolean ownsModel;
 
-    private final IntegerProperty active = new SimpleIntegerProperty(0);
+    private final ObservableList<WizardStep> steps;
 
     private final ObjectProperty<EventHandler<ActionEvent>> onFinish = new SimpleObjectProperty<>();
 
+    private final IntegerProperty contentCacheSize = new SimpleIntegerProperty(Integer.MAX_VALUE);
+
+    private final ContentCache contentCache = new ContentCache(Integer.MAX_VALUE);
+
+    private final ObjectProperty<Executor> prefetchExecutor = new SimpleObjectProperty<>();
+
+    private final BooleanProperty prefetchPrevious = new SimpleBooleanProperty(false);
+
+    private final Set<WizardStep> prefetching = new HashSet<>();
+
+    private final BooleanProperty measureTransitions = new SimpleBooleanProperty(false);
+
+    private final ReadOnlyLongWrapper transitionLatency = new ReadOnlyLongWrapper(0);
+
+    private final ObjectProperty<Executor> finishExecutor = new SimpleObjectProperty<>();
+
+    private final FinishPipeline finishPipeline;
+
+    private final ObservableList<RequirementError> finishErrors = FXCollections.observableArrayList();
+
+    private final ObservableList<RequirementError> unmodifiableFinishErrors = FXCollections.unmodifiableObservableList(finishErrors);
+
+    /**
+     * Der Inhalt, der während der abschließenden Überprüfung gesperrt ist
+     */
+    private Node lockedContent;
+
+    private final ObjectProperty<WizardMetrics> metrics = new SimpleObjectProperty<>();
+
     /**
-     * @param steps Schritte für dieses Wizard. Können später nicht mehr verändert werden.
+     * Eine Überprüfung, die länger als ein Frame bei 60 Hz dauert, gilt als langsam
+     */
+    private final LongProperty slowValidationThreshold = new SimpleLongProperty(16_000_000);
+
+    /**
+     * Nur solange {@code metrics} gesetzt ist, werden die Schritte und deren Requirements gemessen
+     */
+    private final Map<WizardStep, StepInstrumentation> instrumentation = new IdentityHashMap<>();
+
+    private WizardStats registeredStats;
+
+    private TransitionTimer transitionTimer;
+
+    private final StepIndicator progressIndicator;
+
+    private final HBox buttonBar = new HBox(5);
+
+    private final ChangeListener<WizardStep> activeListener;
+
+    private final ListChangeListener<WizardStep> stepsListener;
+
+    private boolean disposed;
+
+    /**
+     * @param steps Schritte für dieses Wizard. Können später über {@link WizardModel#getSteps()} verändert werden.
      */
     public Wizard(WizardStep... steps) {
-        this.steps = Arrays.asList(steps);
+        this(new WizardModel(steps), true);
+    }
 
-        {
-            Optional<Node> progressIndicator = IntStream.range(0, steps.length)
-                    .mapToObj(i -> {
-                        Circle circle = new Circle(10);
-                        circle.setStrokeWidth(3);
+    /**
+     * @param model Schritte und Navigation, die dieses Wizard anzeigt. Wird bei {@link #dispose()} nicht mit entsorgt.
+     */
+    public Wizard(WizardModel model) {
+        this(model, false);
+    }
 
-                        /*
-                         * Alle Kreise, die sich im schon bearbeiteten Bereich befinden,
-                         * bekommen einen clickHandler, der auf die jeweilige Seite umschaltet
-                         */
-                        EventHandler<MouseEvent> clickHandler = event -> active.set(i);
-                        MonadicBinding<EventHandler<MouseEvent>> onMouseClicked = EasyBind.map(progress.asObject(), p -> i <= p ? clickHandler : null);
-                        circle.onMouseClickedProperty().bind(onMouseClicked);
+    private Wizard(WizardModel model, boolean ownsModel) {
+        this.model = model;
+        this.ownsModel = ownsModel;
+        this.steps = model.getSteps();
+        this.finishPipeline = new FinishPipeline(model, Platform::runLater);
 
-                        // Jenachdem, ob alle Anforderungen des jeweiligen Schrittes erfüllt sind, bekommt dieser Kreis die Farbe grün oder rot
-                        MonadicBinding<Color> color = EasyBind.map(steps[i].allValidProperty(), valid -> valid ? Color.GREEN : Color.RED);
+        ObjectBinding<WizardStep> activeStep = model.activeStepProperty();
 
-                        // Alle bearbeiteten Seiten bekommen die Farbe entsprechend ihrer Gültigkeit, alle anderen sind schwarz
-                        circle.strokeProperty().bind(EasyBind.combine(progress.asObject(), color, (p, c) -> i <= p ? c : Color.BLACK));
+        {
+            /*
+             * Ein flacher Fortschrittsanzeiger, der auch bei sehr vielen Schritten nur den sichtbaren Teil zeichnet.
+             * Da noch Schritte hinzukommen können, wird er auch für einen leeren Wizard erzeugt.
+             */
+            progressIndicator = new StepIndicator(model);
 
-                        // Die aktuelle Seite bekommt die Farbe entsprechend ihrer Gültigkeit, alle anderen sind durchsichtig
-                        circle.fillProperty().bind(EasyBind.combine(active.asObject(), color, (a, c) -> a == i ? c : Color.TRANSPARENT));
+            VBox vBox = new VBox(progressIndicator);
+            vBox.setPadding(new Insets(10));
+            vBox.setAlignment(Pos.CENTER);
+            setTop(vBox);
+        }
 
-                        return (Node) circle;
-                    })
-                    .reduce((l, r) -> {
-                        HBox hBox = new HBox(l, new Path(new MoveTo(0, 0), new HLineTo(100)), r);
-                        hBox.setAlignment(Pos.CENTER);
-                        return hBox;
-                    });
+        /*
+         * Der Inhalt des aktuellen Schrittes wird bei Bedarf erst erzeugt.
+         * Der Inhalt von Schritten, die lange nicht angezeigt wurden, wird ggf. wieder verworfen.
+         */
+        if (activeStep.get() != null) {
+            contentCache.load(activeStep.get());
+        }
+        activeListener = (observable, oldValue, newValue) -> {
+            // Wer während der abschließenden Überprüfung zurück geht, bricht sie ab
+            finishPipeline.cancel();
+            if (measureTransitions.get() || metrics.get() != null) {
+                startTransition(oldValue, newValue);
+            }
+            if (newValue != null) {
+                contentCache.load(newValue);
+            }
+            prefetch();
+        };
+        activeStep.addListener(activeListener);
 
-            if (progressIndicator.isPresent()) {
-                VBox vBox = new VBox(progressIndicator.get());
-                vBox.setPadding(new Insets(10));
-                vBox.setAlignment(Pos.CENTER);
-                setTop(vBox);
+        /*
+         * Der Inhalt entfernter Schritte wird sofort verworfen, alle anderen Schritte bleiben unberührt.
+         * Wird gemessen, werden nur die hinzugefügten Schritte zusätzlich gemessen.
+         */
+        stepsListener = change -> {
+            boolean removed = false;
+            while (change.next()) {
+                if (change.wasRemoved()) {
+                    change.getRemoved().forEach(contentCache::remove);
+                    change.getRemoved().forEach(this::uninstrument);
+                    removed = true;
+                }
+                if (change.wasAdded() && metrics.get() != null) {
+                    change.getAddedSubList().forEach(this::instrument);
+                }
             }
-        }
+            WizardStep step = activeStep.get();
+            if (removed && step != null) {
+                contentCache.load(step);
+            }
+        };
+        steps.addListener(stepsListener);
+        contentCacheSize.addListener((observable, oldValue, newValue) -> contentCache.setCapacity(newValue.intValue()));
+        prefetchExecutor.addListener(observable -> prefetch());
+
+        // Während der abschließenden Überprüfung kann weder navigiert noch etwas verändert werden, außer mit Prev
+        ReadOnlyBooleanProperty finishing = finishPipeline.runningProperty();
+        progressIndicator.disableProperty().bind(finishing);
+        finishing.addListener((observable, oldValue, newValue) -> lockContent(newValue));
+
+        // Ohne Metrics hängt an keinem Requirement ein Monitor, sodass die Messung dann nichts kostet
+        metrics.addListener((observable, oldValue, newValue) -> {
+            if (newValue == null) {
+                new ArrayList<>(instrumentation.keySet()).forEach(this::uninstrument);
+            } else if (oldValue == null) {
+                steps.forEach(this::instrument);
+            }
+        });
 
         // Im Center wird immer die Node des aktuellen Schrittes angezeigt
         centerProperty().bind(
-                EasyBind.select(active.asObject())
-                        .selectObject(a -> steps[a].contentProperty())
+                EasyBind.select(activeStep)
+                        .selectObject(WizardStep::contentProperty)
         );
 
         {
-            HBox hBox = new HBox(5);
+            HBox hBox = buttonBar;
             hBox.setPadding(new Insets(10));
 
             {
@@ -98,8 +210,8 @@ public class Wizard extends BorderPane {
                  * und aktiviert die vorhergehende Seite.
                  */
                 Button bPrev = new Button("Prev");
-                bPrev.disableProperty().bind( EasyBind.map( active.asObject(), a -> a == 0 ) );
-                bPrev.setOnAction(event -> active.set(active.get() - 1));
+                bPrev.disableProperty().bind( model.canPrevProperty().not() );
+                bPrev.setOnAction(event -> model.prev());
                 hBox.getChildren().add(bPrev);
             }
 
@@ -113,46 +225,36 @@ public class Wizard extends BorderPane {
                 hBox.getChildren().add(spacer);
             }
 
+            {
+                /*
+                 * Zeigt den Fortschritt der abschließenden Überprüfung, solange sie läuft.
+                 */
+                ProgressBar progressBar = new ProgressBar();
+                progressBar.progressProperty().bind(finishPipeline.progressProperty());
+                progressBar.visibleProperty().bind(finishing);
+                progressBar.managedProperty().bind(finishing);
+                hBox.getChildren().add(progressBar);
+            }
+
             {
                 /*
                  * Der next Button ist immer dann aktiviert, wenn wir uns entweder nicht auf der neusten Seite befinden
                  * oder diese Seite in Ordnung ist. Auf der letzten Seite ist der Button immer deaktiviert.
                  */
                 Button bNext = new Button("Next");
-
-                MonadicBinding<Boolean> thisStepValid = EasyBind.select(active.asObject())
-                        .selectObject(a -> steps[a].allValidProperty());
-
-                MonadicBinding<Boolean> disable = EasyBind.combine(active.asObject(), progress.asObject(), thisStepValid, (a, p, valid) ->
-                        a == steps.length - 1 || (a.equals(p) && !valid)
-                );
-                bNext.disableProperty().bind(disable);
-
-                // Bei einer Aktion wird zur nächsten Seite gegangen und ggf. der progress erhöht.
-                bNext.setOnAction(event -> {
-                    int next = active.get() + 1;
-                    if (next > progress.get()) {
-                        progress.set(next);
-                    }
-                    active.set(next);
-                });
+                bNext.disableProperty().bind( model.canNextProperty().not().or(finishing) );
+                bNext.setOnAction(event -> model.next());
                 hBox.getChildren().add(bNext);
             }
 
             {
                 /*
                  * Der Finish-Button kann nur aktiviert sind, wenn alle Seiten bisher angezeigt wurden
-                 * und alle Seiten in Ordnung sind.
+                 * und alle Seiten in Ordnung sind. Ggf. wird danach noch abschließend überprüft.
                  */
                 Button bFinish = new Button("Finish");
-
-                ObservableValue<Boolean> allStepsValid = Stream.of(steps)
-                        .map(wizardStep -> (ObservableValue<Boolean>) wizardStep.allValidProperty())
-                        .reduce((a, b) -> EasyBind.combine(a, b, (u, v) -> u && v))
-                        .orElseGet(() -> new SimpleBooleanProperty(true));
-
-                bFinish.disableProperty().bind( EasyBind.combine(  progress.asObject(), allStepsValid, (p, valid) -> !(p == steps.length - 1 && valid) ) );
-                bFinish.onActionProperty().bind( onFinish );
+                bFinish.disableProperty().bind( model.canFinishProperty().not().or(finishing) );
+                bFinish.setOnAction(this::finish);
                 hBox.getChildren().add(bFinish);
             }
 
@@ -160,6 +262,256 @@ public class Wizard extends BorderPane {
         }
     }
 
+    /**
+     * Setzt das Modell zurück, sodass dieser Wizard wie neu erzeugt wiederverwendet werden kann.
+     * Bereits erzeugter Inhalt bleibt erhalten, eine laufende abschließende Überprüfung wird abgebrochen.
+     */
+    public void reset() {
+        finishPipeline.cancel();
+        finishErrors.clear();
+        model.reset();
+    }
+
+    /**
+     * Löst alle Bindungen und Listener dieses Wizards, sodass er nicht mehr über das Modell, die Schritte oder
+     * deren Requirements erreichbar ist. Ein selbst erzeugtes Modell wird mit entsorgt.
+     */
+    public void dispose() {
+        disposed = true;
+
+        model.activeStepProperty().removeListener(activeListener);
+        steps.removeListener(stepsListener);
+        progressIndicator.dispose();
+        if (transitionTimer != null) {
+            transitionTimer.stop();
+        }
+
+        metrics.set(null);
+        if (registeredStats != null) {
+            try {
+                registeredStats.unregister();
+            } catch (JMException e) {
+                // wurde bereits von außen abgemeldet
+            }
+            registeredStats = null;
+        }
+
+        finishPipeline.cancel();
+        progressIndicator.disableProperty().unbind();
+
+        centerProperty().unbind();
+        setCenter(null);
+        buttonBar.getChildren().forEach(node -> node.disableProperty().unbind());
+        contentCache.clear();
+
+        if (ownsModel) {
+            model.dispose();
+        }
+    }
+
+    public WizardModel getModel() {
+        return model;
+    }
+
+    /**
+     * @return {@code true}, wenn alle Schritte gültig sind
+     */
+    public ReadOnlyBooleanProperty allStepsValidProperty() {
+        return model.allStepsValidProperty();
+    }
+
+    public boolean isAllStepsValid() {
+        return model.isAllStepsValid();
+    }
+
+    /**
+     * @return die aktuellen Fehlermeldungen aller nicht übersprungenen Schritte, siehe {@link WizardModel#getErrors()}
+     */
+    public ObservableList<RequirementError> getErrors() {
+        return model.getErrors();
+    }
+
+    /**
+     * Schaltet auf den Schritt mit der ersten Fehlermeldung um, sofern dieser schon erreicht wurde.
+     *
+     * @return {@code true}, wenn umgeschaltet wurde
+     */
+    public boolean selectFirstError() {
+        return model.selectFirstError();
+    }
+
+    public int getContentCacheSize() {
+        return contentCacheSize.get();
+    }
+
+    /**
+     * @return maximale Anzahl an Schritten, deren Inhalt gehalten wird. Betrifft nur Schritte, deren Inhalt
+     * per {@link java.util.function.Supplier} erzeugt wird.
+     */
+    public IntegerProperty contentCacheSizeProperty() {
+        return contentCacheSize;
+    }
+
+    public void setContentCacheSize(int contentCacheSize) {
+        this.contentCacheSize.set(contentCacheSize);
+    }
+
+    public Executor getPrefetchExecutor() {
+        return prefetchExecutor.get();
+    }
+
+    /**
+     * @return ein {@link Executor}, auf dem der Inhalt des nächsten Schrittes vorab erzeugt wird, während der aktuelle
+     * Schritt angezeigt wird. Bei {@code null} wird nichts vorab erzeugt. Die {@link java.util.function.Supplier} der
+     * Schritte müssen dann auch außerhalb des JavaFX Application Thread aufgerufen werden können.
+     */
+    public ObjectProperty<Executor> prefetchExecutorProperty() {
+        return prefetchExecutor;
+    }
+
+    public void setPrefetchExecutor(Executor prefetchExecutor) {
+        this.prefetchExecutor.set(prefetchExecutor);
+    }
+
+    public boolean isPrefetchPrevious() {
+        return prefetchPrevious.get();
+    }
+
+    /**
+     * @return {@code true}, wenn zusätzlich der Inhalt des vorherigen Schrittes vorab erzeugt werden soll
+     */
+    public BooleanProperty prefetchPreviousProperty() {
+        return prefetchPrevious;
+    }
+
+    public void setPrefetchPrevious(boolean prefetchPrevious) {
+        this.prefetchPrevious.set(prefetchPrevious);
+    }
+
+    /**
+     * @return ob {@link #transitionLatencyProperty() transitionLatency} gemessen wird. Solange auch keine
+     * {@link #metricsProperty() metrics} gesetzt sind, läuft beim Wechsel des aktiven Schrittes kein
+     * {@link AnimationTimer} mit.
+     */
+    public BooleanProperty measureTransitionsProperty() {
+        return measureTransitions;
+    }
+
+    public boolean isMeasureTransitions() {
+        return measureTransitions.get();
+    }
+
+    public void setMeasureTransitions(boolean measureTransitions) {
+        this.measureTransitions.set(measureTransitions);
+    }
+
+    /**
+     * @return Zeit in Nanosekunden vom letzten Wechsel des aktiven Schrittes bis zu dem Puls,
+     * in dem der neue Inhalt fertig dargestellt wurde
+     */
+    public ReadOnlyLongProperty transitionLatencyProperty() {
+        return transitionLatency.getReadOnlyProperty();
+    }
+
+    public long getTransitionLatency() {
+        return transitionLatency.get();
+    }
+
+    public Executor getFinishExecutor() {
+        return finishExecutor.get();
+    }
+
+    /**
+     * @return ein {@link Executor}, auf dem beim Abschließen alle Requirements der nicht übersprungenen Schritte noch
+     * einmal parallel mit {@link Requirement#validateFinal(Object)} überprüft werden, bevor {@code onFinish} aufgerufen
+     * wird. Währenddessen ist nur Prev möglich, was die Überprüfung abbricht. Schlägt sie fehl, wird zum ersten
+     * fehlerhaften Schritt gewechselt. Bei {@code null} wird nicht abschließend überprüft.
+     */
+    public ObjectProperty<Executor> finishExecutorProperty() {
+        return finishExecutor;
+    }
+
+    public void setFinishExecutor(Executor finishExecutor) {
+        this.finishExecutor.set(finishExecutor);
+    }
+
+    /**
+     * @return {@code true}, solange die abschließende Überprüfung läuft
+     */
+    public ReadOnlyBooleanProperty finishingProperty() {
+        return finishPipeline.runningProperty();
+    }
+
+    public boolean isFinishing() {
+        return finishingProperty().get();
+    }
+
+    /**
+     * @return Fortschritt der abschließenden Überprüfung zwischen 0 und 1
+     */
+    public ReadOnlyDoubleProperty finishProgressProperty() {
+        return finishPipeline.progressProperty();
+    }
+
+    /**
+     * @return die Fehler der letzten abschließenden Überprüfung
+     */
+    public ObservableList<RequirementError> getFinishErrors() {
+        return unmodifiableFinishErrors;
+    }
+
+    public WizardMetrics getMetrics() {
+        return metrics.get();
+    }
+
+    /**
+     * @return bekommt Messwerte zu Überprüfungen, zur Gültigkeit der Schritte und zu Wechseln des aktiven Schrittes.
+     * Bei {@code null} wird nicht gemessen.
+     */
+    public ObjectProperty<WizardMetrics> metricsProperty() {
+        return metrics;
+    }
+
+    public void setMetrics(WizardMetrics metrics) {
+        this.metrics.set(metrics);
+    }
+
+    public long getSlowValidationThreshold() {
+        return slowValidationThreshold.get();
+    }
+
+    /**
+     * @return Dauer in Nanosekunden, ab der eine Überprüfung zusätzlich als
+     * {@link WizardMetrics#slowValidation langsam} gemeldet wird
+     */
+    public LongProperty slowValidationThresholdProperty() {
+        return slowValidationThreshold;
+    }
+
+    public void setSlowValidationThreshold(long slowValidationThreshold) {
+        this.slowValidationThreshold.set(slowValidationThreshold);
+    }
+
+    /**
+     * Sammelt ab sofort Messwerte in einer {@link WizardStats} und meldet sie per JMX an. Eine zuvor angemeldete
+     * Statistik wird vorher abgemeldet, bei {@link #dispose()} wird auch diese wieder abgemeldet.
+     *
+     * @param name unterscheidet mehrere Wizards
+     * @return die angemeldete Statistik
+     */
+    public WizardStats registerMBean(String name) throws JMException {
+        // Zuerst abmelden, damit derselbe Name erneut angemeldet werden kann
+        if (registeredStats != null) {
+            registeredStats.unregister();
+            registeredStats = null;
+        }
+        WizardStats stats = new WizardStats();
+        stats.register(name);
+        registeredStats = stats;
+        setMetrics(stats);
+        return stats;
+    }
+
     public EventHandler<ActionEvent> getOnFinish() {
         return onFinish.get();
     }
@@ -172,4 +524,255 @@ public class Wizard extends BorderPane {
         this.onFinish.set(onFinish);
     }
 
+    private void finish(ActionEvent event) {
+        if (!model.finish()) {
+            return;
+        }
+
+        Executor executor = finishExecutor.get();
+        if (executor == null) {
+            fireFinish(event);
+            return;
+        }
+
+        finishErrors.clear();
+        finishPipeline.start(executor, errors -> {
+            if (errors.isEmpty()) {
+                fireFinish(event);
+            } else {
+                finishErrors.setAll(errors);
+                model.select(steps.indexOf(errors.get(0).getStep()));
+            }
+        });
+    }
+
+    private void fireFinish(ActionEvent event) {
+        EventHandler<ActionEvent> handler = onFinish.get();
+        if (handler != null) {
+            handler.handle(event);
+        }
+    }
+
+    private void lockContent(boolean lock) {
+        if (lockedContent != null) {
+            lockedContent.setDisable(false);
+            lockedContent = null;
+        }
+        if (lock && getCenter() != null && !getCenter().isDisabled()) {
+            lockedContent = getCenter();
+            lockedContent.setDisable(true);
+        }
+    }
+
+    /**
+     * Erzeugt den Inhalt der benachbarten Schritte vorab. Da der Cache den aktiven Schritt nicht verdrängen darf,
+     * wird nur so viel vorab erzeugt, wie neben dem aktiven Schritt in den Cache passt.
+     */
+    private void prefetch() {
+        Executor executor = prefetchExecutor.get();
+        if (executor == null) {
+            return;
+        }
+
+        // Übersprungene Schritte werden nie angezeigt und daher auch nicht vorab erzeugt
+        int a = model.getActive();
+        if (contentCacheSize.get() >= 2) {
+            prefetch(model.nextEnabled(a), executor);
+        }
+        if (prefetchPrevious.get() && contentCacheSize.get() >= 3) {
+            prefetch(model.prevEnabled(a), executor);
+        }
+    }
+
+    private void prefetch(int index, Executor executor) {
+        if (index < 0 || index >= steps.size()) {
+            return;
+        }
+
+        WizardStep step = steps.get(index);
+        if (!step.needsContent() || !prefetching.add(step)) {
+            return;
+        }
+
+        // Die Nodes werden im Hintergrund erzeugt, aber erst im JavaFX Application Thread übernommen
+        executor.execute(() -> {
+            Node node;
+            try {
+                node = step.createContent();
+            } catch (RuntimeException e) {
+                // Der Fehler wird gemeldet und beim Anzeigen im JavaFX Application Thread erneut versucht
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                node = null;
+            }
+
+            Node prefetched = node;
+            Platform.runLater(() -> {
+                prefetching.remove(step);
+                if (!disposed && steps.contains(step) && step.offerContent(prefetched)) {
+                    contentCache.load(step);
+                    WizardStep activeStep = model.getActiveStep();
+                    if (activeStep != null) {
+                        contentCache.load(activeStep);
+                    }
+                    warmUp(prefetched);
+                }
+            });
+        });
+    }
+
+    /**
+     * CSS und Layout werden schon einmal berechnet, während die Node unsichtbar und ohne Einfluss auf das Layout
+     * in diesem Wizard hängt. Dabei gelten dieselben Stylesheets wie später beim Anzeigen, sodass beim Umschalten
+     * möglichst wenig Arbeit übrig bleibt.
+     */
+    private void warmUp(Node node) {
+        if (getScene() == null || node.getParent() != null) {
+            return;
+        }
+
+        boolean visible = node.isVisible();
+        boolean managed = node.isManaged();
+        node.setVisible(false);
+        node.setManaged(false);
+        getChildren().add(node);
+        try {
+            node.applyCss();
+            Node current = getCenter();
+            if (current != null) {
+                node.resize(current.getLayoutBounds().getWidth(), current.getLayoutBounds().getHeight());
+            }
+            if (node instanceof Parent) {
+                ((Parent) node).layout();
+            }
+        } finally {
+            getChildren().remove(node);
+            node.setManaged(managed);
+            node.setVisible(visible);
+        }
+    }
+
+    private void instrument(WizardStep step) {
+        if (!instrumentation.containsKey(step)) {
+            StepInstrumentation stepInstrumentation = new StepInstrumentation(step);
+            instrumentation.put(step, stepInstrumentation);
+            stepInstrumentation.install();
+        }
+    }
+
+    private void uninstrument(WizardStep step) {
+        StepInstrumentation stepInstrumentation = instrumentation.remove(step);
+        if (stepInstrumentation != null) {
+            stepInstrumentation.uninstall();
+        }
+    }
+
+    private void startTransition(WizardStep from, WizardStep to) {
+        if (transitionTimer == null) {
+            transitionTimer = new TransitionTimer();
+        }
+        transitionTimer.begin(from, to);
+    }
+
+    /**
+     * Misst die Zeit bis zum Ende des ersten Pulses nach einem Wechsel. Der neue Inhalt wird im ersten Puls
+     * dargestellt, beim Beginn des zweiten Pulses ist diese Arbeit also erledigt.
+     */
+    private class TransitionTimer extends AnimationTimer {
+
+        private long start;
+
+        private int pulses;
+
+        private WizardStep from;
+
+        private WizardStep to;
+
+        private boolean running;
+
+        private void begin(WizardStep from, WizardStep to) {
+            // Folgen mehrere Wechsel kurz aufeinander, zählt der Schritt vor dem ersten Wechsel
+            if (!running) {
+                this.from = from;
+            }
+            running = true;
+            this.to = to;
+            start = System.nanoTime();
+            pulses = 0;
+            start();
+        }
+
+        @Override
+        public void handle(long now) {
+            if (++pulses == 2) {
+                stop();
+                running = false;
+                long latency = System.nanoTime() - start;
+                transitionLatency.set(latency);
+
+                WizardMetrics m = metrics.get();
+                if (m != null) {
+                    m.transition(from, to, latency);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Meldet die Überprüfungen aller Requirements eines Schrittes und die Neuberechnungen seiner Gültigkeit an
+     * {@code metrics}. Auch später hinzugefügte Requirements werden gemessen.
+     */
+    private class StepInstrumentation implements ValidationMonitor, ListChangeListener<Requirement<?>> {
+
+        private final WizardStep step;
+
+        private StepInstrumentation(WizardStep step) {
+            this.step = step;
+        }
+
+        private void install() {
+            step.getRequirements().forEach(requirement -> requirement.setValidationMonitor(this));
+            step.getRequirements().addListener(this);
+            step.setValidityRecomputeListener(invalidCount -> {
+                WizardMetrics m = metrics.get();
+                if (m != null) {
+                    m.stepValidityRecomputed(step, invalidCount == 0);
+                }
+            });
+        }
+
+        private void uninstall() {
+            step.getRequirements().removeListener(this);
+            step.getRequirements().forEach(this::release);
+            step.setValidityRecomputeListener(null);
+        }
+
+        private void release(Requirement<?> requirement) {
+            if (requirement.getValidationMonitor() == this) {
+                requirement.setValidationMonitor(null);
+            }
+        }
+
+        @Override
+        public void validated(Requirement<?> requirement, long nanos) {
+            WizardMetrics m = metrics.get();
+            if (m != null) {
+                m.validated(step, requirement, nanos);
+                if (nanos > slowValidationThreshold.get()) {
+                    m.slowValidation(step, requirement, nanos);
+                }
+            }
+        }
+
+        @Override
+        public void onChanged(Change<? extends Requirement<?>> change) {
+            while (change.next()) {
+                change.getRemoved().forEach(this::release);
+                change.getAddedSubList().forEach(requirement -> requirement.setValidationMonitor(this));
+            }
+        }
+
+    }
+
 }
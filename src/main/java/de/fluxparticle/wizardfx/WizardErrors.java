@@ -0,0 +1,122 @@
+package de.fluxparticle.wizardfx;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hängt die Fehlermeldungen aller nicht übersprungenen Schritte in der Reihenfolge der Schritte aneinander. Änderungen
+ * der Fehlermeldungen eines Schrittes werden an der passenden Stelle übernommen, sodass die Liste nur diese Änderungen
+ * meldet. Nur wenn sich die Schritte selbst ändern, wird die Liste neu aufgebaut.
+ */
+class WizardErrors {
+
+    private final ObservableList<WizardStep> steps;
+
+    private final ObservableList<RequirementError> errors = FXCollections.observableArrayList();
+
+    private final ObservableList<RequirementError> unmodifiableErrors = FXCollections.unmodifiableObservableList(errors);
+
+    private final Map<WizardStep, ListChangeListener<RequirementError>> listeners = new IdentityHashMap<>();
+
+    private final ListChangeListener<WizardStep> stepsListener;
+
+    WizardErrors(ObservableList<WizardStep> steps) {
+        this.steps = steps;
+        steps.forEach(this::watch);
+        rebuild();
+
+        stepsListener = change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::unwatch);
+                change.getAddedSubList().forEach(this::watch);
+            }
+            rebuild();
+        };
+        steps.addListener(stepsListener);
+    }
+
+    ObservableList<RequirementError> getErrors() {
+        return unmodifiableErrors;
+    }
+
+    /**
+     * Meldet alle Listener ab und leert die Liste.
+     */
+    void dispose() {
+        steps.removeListener(stepsListener);
+        new ArrayList<>(listeners.keySet()).forEach(this::unwatch);
+        errors.clear();
+    }
+
+    private void watch(WizardStep step) {
+        if (!listeners.containsKey(step)) {
+            ListChangeListener<RequirementError> listener = change -> stepErrorsChanged(step, change);
+            listeners.put(step, listener);
+            step.getErrors().addListener(listener);
+        }
+    }
+
+    private void unwatch(WizardStep step) {
+        ListChangeListener<RequirementError> listener = listeners.remove(step);
+        if (listener != null) {
+            step.getErrors().removeListener(listener);
+        }
+    }
+
+    private void rebuild() {
+        List<RequirementError> all = new ArrayList<>();
+        for (WizardStep step : steps) {
+            if (step.isEnabled()) {
+                all.addAll(step.getErrors());
+            }
+        }
+        errors.setAll(all);
+    }
+
+    private void stepErrorsChanged(WizardStep step, ListChangeListener.Change<? extends RequirementError> change) {
+        if (!step.isEnabled()) {
+            return;
+        }
+
+        int offset = offsetOf(step);
+        while (change.next()) {
+            int from = offset + change.getFrom();
+            if (change.wasPermutated()) {
+                errors.subList(from, offset + change.getTo()).clear();
+                errors.addAll(from, change.getList().subList(change.getFrom(), change.getTo()));
+            } else if (change.wasReplaced() && change.getRemovedSize() == 1 && change.getAddedSize() == 1) {
+                errors.set(from, change.getAddedSubList().get(0));
+            } else {
+                if (change.wasRemoved()) {
+                    errors.subList(from, from + change.getRemovedSize()).clear();
+                }
+                if (change.wasAdded()) {
+                    errors.addAll(from, change.getAddedSubList());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return wie viele Einträge der nicht übersprungenen Schritte vor diesem Schritt liegen
+     */
+    private int offsetOf(WizardStep step) {
+        int offset = 0;
+        for (WizardStep s : steps) {
+            if (s == step) {
+                break;
+            }
+            if (s.isEnabled()) {
+                offset += s.getErrors().size();
+            }
+        }
+        return offset;
+    }
+
+}
@@ -0,0 +1,674 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.Requirement;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import org.fxmisc.easybind.Subscription;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Speichert einen Entwurf des Wizards laufend in einer lokalen Datei, damit nach einem Absturz mit {@link #restore()}
+ * weitergearbeitet werden kann. Gespeichert werden die Werte aller Requirements mit Namen sowie active und progress.
+ *
+ * Jede Änderung wird im JavaFX Application Thread nur vorgemerkt. Ein eigener Thread hängt alle bis dahin vorgemerkten
+ * Änderungen gemeinsam als kompakte binäre Einträge an die Datei an, wobei von mehreren Änderungen desselben Wertes nur
+ * die letzte geschrieben wird. Sammeln sich zu viele überholte Einträge an, wird die Datei durch einen Schnappschuss
+ * des aktuellen Standes ersetzt.
+ *
+ * Unterstützt werden {@code null}, {@link String}, {@link Integer}, {@link Long}, {@link Double}, {@link Boolean}
+ * sowie {@link Serializable} Werte, die nur aus Klassen aus {@code java.time}, {@code java.math}, den Wrappern aus
+ * {@code java.lang} und den beim Erzeugen angegebenen Typen bestehen. Nur diese Klassen werden beim Lesen auch
+ * deserialisiert. Andere Werte, z.B. ein {@link java.util.Optional}, werden nicht gespeichert und als
+ * {@link #getFailure()} gemeldet. Das Requirement behält dann beim Wiederherstellen seinen Startwert. Welche
+ * Requirements gespeichert werden, wird einmalig beim Erzeugen festgelegt.
+ */
+public class WizardJournal {
+
+    private static final byte RECORD_VALUE = 1;
+
+    private static final byte RECORD_POSITION = 2;
+
+    /**
+     * Der Wert konnte nicht gespeichert werden, ein früher gespeicherter Wert gilt daher nicht mehr
+     */
+    private static final byte RECORD_UNSET = 3;
+
+    private static final byte TYPE_NULL = 0;
+
+    private static final byte TYPE_STRING = 1;
+
+    private static final byte TYPE_INT = 2;
+
+    private static final byte TYPE_LONG = 3;
+
+    private static final byte TYPE_DOUBLE = 4;
+
+    private static final byte TYPE_BOOLEAN = 5;
+
+    private static final byte TYPE_SERIALIZABLE = 6;
+
+    /**
+     * Länge und Prüfsumme vor jedem Eintrag
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * Ab so vielen überholten Einträgen wird die Datei verdichtet
+     */
+    private static final int COMPACTION_THRESHOLD = 1024;
+
+    /**
+     * Klassen aus {@code java.lang}, die außer den Klassen aus {@link #ALLOWED_PACKAGES} serialisiert werden dürfen
+     */
+    private static final Set<String> ALLOWED_CLASSES = new HashSet<>(Arrays.asList(
+            "java.lang.String", "java.lang.Boolean", "java.lang.Character", "java.lang.Number", "java.lang.Byte",
+            "java.lang.Short", "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double",
+            "java.lang.Enum"
+    ));
+
+    private static final String[] ALLOWED_PACKAGES = { "java.time.", "java.math." };
+
+    private final WizardModel model;
+
+    private final Path file;
+
+    /**
+     * Alle Requirements mit Namen. Wird einmalig erzeugt, damit die Listen der Schritte nicht verfolgt werden müssen.
+     */
+    private final Map<String, Requirement<?>> requirements = new LinkedHashMap<>();
+
+    /**
+     * Namen der Klassen, die zusätzlich serialisiert werden dürfen
+     */
+    private final Set<String> types = new HashSet<>();
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "wizard-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Subscription subscription = Subscription.EMPTY;
+
+    private boolean started;
+
+    /*
+     * Vom JavaFX Application Thread vorgemerkt und vom Schreib-Thread abgeholt
+     */
+
+    private final Object lock = new Object();
+
+    private Map<String, Object> pending = new LinkedHashMap<>();
+
+    private boolean positionChanged;
+
+    private int pendingActive;
+
+    private int pendingProgress;
+
+    private boolean scheduled;
+
+    /*
+     * Wird nur vom Schreib-Thread benutzt
+     */
+
+    private final Map<String, Object> state = new HashMap<>();
+
+    private int active;
+
+    private int progress;
+
+    private FileChannel channel;
+
+    private int staleRecords;
+
+    private volatile IOException failure;
+
+    /**
+     * @param model das Modell, dessen Werte gespeichert werden
+     * @param file die Datei, in der der Entwurf gespeichert wird
+     * @param types weitere {@link Serializable} Typen, die gespeichert und gelesen werden dürfen, z.B. eigene Enums
+     */
+    public WizardJournal(WizardModel model, Path file, Class<?>... types) {
+        this.model = model;
+        this.file = file;
+        for (Class<?> type : types) {
+            this.types.add(type.getName());
+        }
+        for (WizardStep step : model.getSteps()) {
+            for (Requirement<?> requirement : step.getRequirements()) {
+                if (requirement.getName() != null) {
+                    requirements.put(requirement.getName(), requirement);
+                }
+            }
+        }
+    }
+
+    /**
+     * Liest einen vorhandenen Entwurf und übernimmt ihn in das Modell. Alle Werte werden dabei zuerst gesetzt und danach
+     * gemeinsam überprüft. Ein unvollständiger letzter Eintrag, z.B. nach einem Absturz während des Schreibens, wird
+     * ignoriert. Sollte vor {@link #start()} aufgerufen werden.
+     *
+     * @return {@code true}, wenn ein Entwurf gefunden wurde
+     */
+    public boolean restore() throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+
+        ByteBuffer buffer;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = ByteBuffer.allocate((int) in.size());
+            while (buffer.hasRemaining() && in.read(buffer) >= 0) {
+                // weiterlesen
+            }
+        }
+        buffer.flip();
+
+        Map<String, Object> values = new HashMap<>();
+        int restoredActive = -1;
+        int restoredProgress = -1;
+
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                break;
+            }
+
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+            buffer.position(buffer.position() + length);
+
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            try {
+                byte record = payload.get();
+                if (record == RECORD_VALUE) {
+                    String name = readString(payload);
+                    try {
+                        values.put(name, readValue(payload));
+                    } catch (InvalidClassException e) {
+                        // Ein Wert aus nicht erlaubten Klassen wird übersprungen, das Requirement behält seinen Startwert
+                        values.remove(name);
+                    }
+                } else if (record == RECORD_UNSET) {
+                    values.remove(readString(payload));
+                } else if (record == RECORD_POSITION) {
+                    restoredActive = payload.getInt();
+                    restoredProgress = payload.getInt();
+                } else {
+                    break;
+                }
+            } catch (BufferUnderflowException | ClassNotFoundException | IOException e) {
+                // Ein beschädigter Eintrag beendet das Lesen wie ein unvollständiger
+                break;
+            }
+        }
+
+        if (values.isEmpty() && restoredProgress < 0) {
+            return false;
+        }
+
+        values.keySet().retainAll(requirements.keySet());
+        if (restoredProgress < 0) {
+            restoredActive = model.getActive();
+            restoredProgress = model.getProgress();
+        }
+        model.restore(values, restoredActive, restoredProgress);
+        return true;
+    }
+
+    /**
+     * Beginnt mit dem Speichern. Die Datei wird zunächst durch den aktuellen Stand ersetzt,
+     * danach wird jede Änderung angehängt.
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        Map<String, Object> snapshot = new HashMap<>();
+        requirements.forEach((name, requirement) -> {
+            ObservableValue<?> data = requirement.dataProperty();
+            snapshot.put(name, data.getValue());
+
+            ChangeListener<Object> listener = (observable, oldValue, newValue) -> record(name, newValue);
+            data.addListener(listener);
+            subscription = subscription.and(() -> data.removeListener(listener));
+        });
+
+        ChangeListener<Number> positionListener = (observable, oldValue, newValue) -> recordPosition();
+        model.activeProperty().addListener(positionListener);
+        model.progressProperty().addListener(positionListener);
+        subscription = subscription.and(() -> {
+            model.activeProperty().removeListener(positionListener);
+            model.progressProperty().removeListener(positionListener);
+        });
+
+        int a = model.getActive();
+        int p = model.getProgress();
+        writer.execute(() -> {
+            state.putAll(snapshot);
+            active = a;
+            progress = p;
+            try {
+                compact();
+            } catch (IOException e) {
+                failure = e;
+            }
+        });
+    }
+
+    /**
+     * Schreibt alle noch vorgemerkten Änderungen und schließt die Datei. Der Entwurf bleibt erhalten.
+     */
+    public void dispose() {
+        shutdown(false);
+    }
+
+    /**
+     * Beendet das Speichern und löscht den Entwurf, z.B. nachdem der Wizard abgeschlossen wurde.
+     */
+    public void delete() {
+        shutdown(true);
+    }
+
+    /**
+     * Wartet nach {@link #dispose()} oder {@link #delete()}, bis alle vorgemerkten Änderungen geschrieben sind,
+     * z.B. beim Beenden der Anwendung.
+     *
+     * @return {@code false}, wenn die Zeit vorher abgelaufen ist
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return writer.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * @return der letzte Fehler beim Schreiben, auch wenn nur ein einzelner Wert nicht gespeichert werden konnte,
+     * oder {@code null}
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    private void shutdown(boolean delete) {
+        subscription.unsubscribe();
+        subscription = Subscription.EMPTY;
+
+        if (writer.isShutdown()) {
+            return;
+        }
+        writer.execute(() -> {
+            try {
+                close();
+                if (delete) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+        });
+        writer.shutdown();
+    }
+
+    private void record(String name, Object value) {
+        synchronized (lock) {
+            pending.put(name, value);
+            schedule();
+        }
+    }
+
+    private void recordPosition() {
+        synchronized (lock) {
+            positionChanged = true;
+            pendingActive = model.getActive();
+            pendingProgress = model.getProgress();
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        if (!scheduled) {
+            scheduled = true;
+            writer.execute(this::write);
+        }
+    }
+
+    /**
+     * Schreibt alle bis jetzt vorgemerkten Änderungen mit einem einzigen Aufruf.
+     */
+    private void write() {
+        Map<String, Object> batch;
+        boolean position;
+        synchronized (lock) {
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            position = positionChanged;
+            positionChanged = false;
+            if (position) {
+                active = pendingActive;
+                progress = pendingProgress;
+            }
+            scheduled = false;
+        }
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (Map.Entry<String, Object> entry : batch.entrySet()) {
+                String name = entry.getKey();
+                byte[] payload = encodeValue(name, entry.getValue());
+                if (state.containsKey(name)) {
+                    staleRecords++;
+                }
+                if (payload != null) {
+                    state.put(name, entry.getValue());
+                    writeRecord(out, payload);
+                } else if (state.remove(name) != null) {
+                    writeRecord(out, encodeUnset(name));
+                }
+            }
+            if (position) {
+                staleRecords++;
+                writeRecord(out, encodePosition(active, progress));
+            }
+
+            if (staleRecords > COMPACTION_THRESHOLD) {
+                compact();
+            } else {
+                writeFully(channel(), ByteBuffer.wrap(out.toByteArray()));
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Ersetzt die Datei durch einen Schnappschuss des aktuellen Standes. Der Schnappschuss wird zuerst vollständig in
+     * eine temporäre Datei geschrieben, sodass bei einem Absturz immer entweder die alte oder die neue Datei vorliegt.
+     */
+    private void compact() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Iterator<Map.Entry<String, Object>> entries = state.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Object> entry = entries.next();
+            byte[] payload = encodeValue(entry.getKey(), entry.getValue());
+            if (payload != null) {
+                writeRecord(out, payload);
+            } else {
+                entries.remove();
+            }
+        }
+        writeRecord(out, encodePosition(active, progress));
+
+        close();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel snapshot = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(snapshot, ByteBuffer.wrap(out.toByteArray()));
+            snapshot.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        staleRecords = 0;
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void writeRecord(ByteArrayOutputStream out, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(payload.length);
+        data.writeInt((int) crc.getValue());
+        data.write(payload);
+    }
+
+    private static byte[] encodePosition(int active, int progress) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(9);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(RECORD_POSITION);
+        out.writeInt(active);
+        out.writeInt(progress);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeUnset(String name) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(RECORD_UNSET);
+        writeBytes(out, name.getBytes(StandardCharsets.UTF_8));
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return der Eintrag für diesen Wert oder {@code null}, wenn der Wert nicht gespeichert werden kann.
+     * Der Grund wird dann in {@link #failure} festgehalten.
+     */
+    private byte[] encodeValue(String name, Object value) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(RECORD_VALUE);
+            writeBytes(out, name.getBytes(StandardCharsets.UTF_8));
+
+            if (value == null) {
+                out.writeByte(TYPE_NULL);
+            } else if (value instanceof String) {
+                out.writeByte(TYPE_STRING);
+                writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+            } else if (value instanceof Integer) {
+                out.writeByte(TYPE_INT);
+                out.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                out.writeByte(TYPE_LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof Double) {
+                out.writeByte(TYPE_DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Boolean) {
+                out.writeByte(TYPE_BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else {
+                ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+                try (ObjectOutputStream objects = new CheckedObjectOutputStream(serialized)) {
+                    objects.writeObject(value);
+                }
+                out.writeByte(TYPE_SERIALIZABLE);
+                writeBytes(out, serialized.toByteArray());
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            failure = new IOException("cannot save value of '" + name + "'", e);
+            return null;
+        } catch (UncheckedIOException e) {
+            // z.B. ein Optional oder ein Serializable, das eine nicht erlaubte Klasse enthält
+            failure = new IOException("cannot save value of '" + name + "'", e.getCause());
+            return null;
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private Object readValue(ByteBuffer in) throws IOException, ClassNotFoundException {
+        byte type = in.get();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_INT:
+                return in.getInt();
+            case TYPE_LONG:
+                return in.getLong();
+            case TYPE_DOUBLE:
+                return in.getDouble();
+            case TYPE_BOOLEAN:
+                return in.get() != 0;
+            case TYPE_SERIALIZABLE:
+                try (ObjectInputStream objects = new CheckedObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+                    return objects.readObject();
+                }
+            default:
+                throw new IOException("unknown type " + type);
+        }
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer in) throws IOException {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("invalid length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * @param name der Name einer Klasse, wie ihn {@link Class#getName()} liefert, auch für Arrays
+     * @return {@code true}, wenn Objekte dieser Klasse gespeichert und gelesen werden dürfen
+     */
+    private boolean isAllowed(String name) {
+        // Bei Arrays zählt der Typ der Elemente, primitive Typen sind immer erlaubt
+        String element = name.replaceFirst("^\\[+", "");
+        if (element.length() != name.length()) {
+            if (!element.startsWith("L")) {
+                return true;
+            }
+            element = element.substring(1, element.length() - 1);
+        }
+        if (ALLOWED_CLASSES.contains(element) || types.contains(element)) {
+            return true;
+        }
+        for (String allowedPackage : ALLOWED_PACKAGES) {
+            if (element.startsWith(allowedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lehnt beim Schreiben jedes Objekt und jede Klasse ab, die beim Lesen nicht deserialisiert würde. Die Ablehnung
+     * ist eine {@link UncheckedIOException}, da der {@link ObjectOutputStream} bei einer {@link IOException} versucht,
+     * die Exception selbst noch in den Stream zu schreiben, und dabei den eigentlichen Grund verliert.
+     */
+    private class CheckedObjectOutputStream extends ObjectOutputStream {
+
+        private CheckedObjectOutputStream(OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            check(obj.getClass());
+            return obj;
+        }
+
+        @Override
+        protected void annotateClass(Class<?> type) {
+            check(type);
+        }
+
+        @Override
+        protected void annotateProxyClass(Class<?> type) {
+            throw new UncheckedIOException(new InvalidClassException(type.getName(), "not allowed in journal"));
+        }
+
+        private void check(Class<?> type) {
+            if (!isAllowed(type.getName())) {
+                throw new UncheckedIOException(new InvalidClassException(type.getName(), "not allowed in journal"));
+            }
+        }
+
+    }
+
+    /**
+     * Deserialisiert nur erlaubte Klassen, damit eine veränderte Datei keine beliebigen Klassen laden kann.
+     */
+    private class CheckedObjectInputStream extends ObjectInputStream {
+
+        private CheckedObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!isAllowed(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "not allowed in journal");
+            }
+            return super.resolveClass(desc);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException("proxy", "not allowed in journal");
+        }
+
+    }
+
+}
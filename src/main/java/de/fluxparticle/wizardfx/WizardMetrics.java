@@ -0,0 +1,49 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.Requirement;
+
+/**
+ * Bekommt Messwerte eines {@link Wizard}s gemeldet, siehe {@link Wizard#metricsProperty()}. Alle Methoden werden im
+ * JavaFX Application Thread aufgerufen und sollten schnell zurückkehren. Es müssen nur die Methoden überschrieben
+ * werden, die benötigt werden.
+ */
+public interface WizardMetrics {
+
+    /**
+     * Ein Requirement wurde überprüft.
+     *
+     * @param step der Schritt, zu dem das Requirement gehört
+     * @param requirement das überprüfte Requirement
+     * @param nanos Dauer der Überprüfung in Nanosekunden
+     */
+    default void validated(WizardStep step, Requirement<?> requirement, long nanos) {
+    }
+
+    /**
+     * Eine Überprüfung hat länger gedauert als {@link Wizard#slowValidationThresholdProperty()}. Wird zusätzlich zu
+     * {@link #validated(WizardStep, Requirement, long)} aufgerufen.
+     */
+    default void slowValidation(WizardStep step, Requirement<?> requirement, long nanos) {
+    }
+
+    /**
+     * Die Gültigkeit eines Schrittes wurde neu berechnet, weil sich die Gültigkeit eines seiner Requirements
+     * geändert hat.
+     *
+     * @param step der Schritt
+     * @param valid {@code true}, wenn der Schritt danach gültig ist
+     */
+    default void stepValidityRecomputed(WizardStep step, boolean valid) {
+    }
+
+    /**
+     * Der aktive Schritt wurde gewechselt und der neue Inhalt ist dargestellt.
+     *
+     * @param from der zuvor aktive Schritt oder {@code null}
+     * @param to der jetzt aktive Schritt oder {@code null}
+     * @param nanos Zeit vom Wechsel bis zur fertigen Darstellung in Nanosekunden
+     */
+    default void transition(WizardStep from, WizardStep to, long nanos) {
+    }
+
+}
@@ -0,0 +1,385 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.Requirement;
+import javafx.beans.Observable;
+import javafx.beans.binding.BooleanBinding;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.ObjectBinding;
+import javafx.beans.property.*;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.fxmisc.easybind.EasyBind;
+import org.fxmisc.easybind.monadic.MonadicBinding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enthält die Schritte eines Wizards und die Regeln, nach denen zwischen ihnen navigiert werden darf.
+ * Hängt selbst nicht von {@code javafx.scene} ab und kann daher auch ohne gestartetes JavaFX-Toolkit benutzt werden,
+ * z.B. in Services oder Tests. Werden die Schritte mit einem {@link java.util.function.Supplier} erzeugt, entstehen
+ * dabei auch keine Nodes. {@link Wizard} ist nur eine Ansicht auf dieses Modell.
+ */
+public class WizardModel {
+
+    private final ObservableList<WizardStep> steps;
+
+    private final ReadOnlyIntegerWrapper progress = new ReadOnlyIntegerWrapper(0);
+
+    private final ReadOnlyIntegerWrapper active = new ReadOnlyIntegerWrapper(0);
+
+    private final ValidityCounter<WizardStep> invalidSteps = new ValidityCounter<>(WizardStep::skippedOrValidProperty);
+
+    private final ListChangeListener<WizardStep> indexUpdater = this::updateIndices;
+
+    private final WizardErrors errors;
+
+    private final ObjectBinding<WizardStep> activeStep;
+
+    private final MonadicBinding<Boolean> thisStepValid;
+
+    private final BooleanBinding canPrev;
+
+    private final BooleanBinding canNext;
+
+    private final BooleanBinding canFinish;
+
+    /**
+     * @param steps Schritte für dieses Wizard. Können später über {@link #getSteps()} verändert werden.
+     */
+    public WizardModel(WizardStep... steps) {
+        // Die Liste meldet auch, wenn ein Schritt übersprungen wird, damit sich die Navigation neu berechnet
+        this.steps = FXCollections.observableArrayList(step -> new Observable[] { step.enabledProperty() });
+        this.steps.addAll(steps);
+
+        // Wird die Liste verändert, zeigen active und progress weiterhin auf dieselben Schritte
+        this.steps.addListener(indexUpdater);
+
+        // Es wird nur gezählt, wie viele Schritte ungültig sind. Übersprungene Schritte zählen nicht mit.
+        invalidSteps.track(this.steps);
+
+        // Die Fehlermeldungen aller nicht übersprungenen Schritte in einer Liste
+        errors = new WizardErrors(this.steps);
+
+        int first = Math.max(nextEnabled(-1), 0);
+        active.set(first);
+        progress.set(first);
+
+        activeStep = Bindings.createObjectBinding(() -> {
+            int a = active.get();
+            return a < this.steps.size() ? this.steps.get(a) : null;
+        }, active, this.steps);
+
+        // Zurück geht es immer, außer auf der ersten nicht übersprungenen Seite.
+        canPrev = Bindings.createBooleanBinding(() -> prevEnabled(active.get()) >= 0, active, this.steps);
+
+        /*
+         * Weiter geht es immer dann, wenn die nächste Seite schon einmal erreicht wurde
+         * oder diese Seite in Ordnung ist. Auf der letzten nicht übersprungenen Seite geht es nie weiter.
+         */
+        thisStepValid = EasyBind.select(activeStep)
+                .selectObject(WizardStep::allValidProperty);
+
+        canNext = Bindings.createBooleanBinding(() -> {
+            int next = nextEnabled(active.get());
+            return next >= 0 && (next <= progress.get() || Boolean.TRUE.equals(thisStepValid.getValue()));
+        }, active, progress, this.steps, thisStepValid);
+
+        /*
+         * Fertig ist der Wizard erst, wenn alle nicht übersprungenen Seiten bisher angezeigt wurden
+         * und alle diese Seiten in Ordnung sind.
+         */
+        canFinish = Bindings.createBooleanBinding(
+                () -> !this.steps.isEmpty() && nextEnabled(progress.get()) < 0 && invalidSteps.allValidProperty().get(),
+                progress, this.steps, invalidSteps.allValidProperty()
+        );
+    }
+
+    /**
+     * @return die Schritte dieses Wizards. Schritte können jederzeit hinzugefügt, entfernt oder umsortiert werden,
+     * ohne dass die übrigen Schritte davon betroffen sind.
+     */
+    public ObservableList<WizardStep> getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return Index des neusten Schrittes, der bisher erreicht wurde
+     */
+    public ReadOnlyIntegerProperty progressProperty() {
+        return progress.getReadOnlyProperty();
+    }
+
+    public int getProgress() {
+        return progress.get();
+    }
+
+    /**
+     * @return Index des Schrittes, der gerade bearbeitet wird
+     */
+    public ReadOnlyIntegerProperty activeProperty() {
+        return active.getReadOnlyProperty();
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * @return der Schritt, der gerade bearbeitet wird, oder {@code null}, wenn es keine Schritte gibt
+     */
+    public ObjectBinding<WizardStep> activeStepProperty() {
+        return activeStep;
+    }
+
+    public WizardStep getActiveStep() {
+        return activeStep.get();
+    }
+
+    /**
+     * @return {@code true}, wenn alle Schritte gültig sind
+     */
+    public ReadOnlyBooleanProperty allStepsValidProperty() {
+        return invalidSteps.allValidProperty();
+    }
+
+    public boolean isAllStepsValid() {
+        return allStepsValidProperty().get();
+    }
+
+    /**
+     * @return die aktuellen Fehlermeldungen aller nicht übersprungenen Schritte in der Reihenfolge der Schritte und
+     * ihrer Requirements. Ändert sich eine Fehlermeldung, meldet die Liste nur das Entfernen bzw. Einfügen dieses einen
+     * Eintrags.
+     */
+    public ObservableList<RequirementError> getErrors() {
+        return errors.getErrors();
+    }
+
+    /**
+     * @return die erste Fehlermeldung oder {@code null}
+     */
+    public RequirementError getFirstError() {
+        ObservableList<RequirementError> list = errors.getErrors();
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    /**
+     * Schaltet auf den Schritt mit der ersten Fehlermeldung um, sofern dieser schon erreicht wurde.
+     *
+     * @return {@code true}, wenn umgeschaltet wurde
+     */
+    public boolean selectFirstError() {
+        RequirementError error = getFirstError();
+        return error != null && select(steps.indexOf(error.getStep()));
+    }
+
+    public BooleanBinding canPrevProperty() {
+        return canPrev;
+    }
+
+    public BooleanBinding canNextProperty() {
+        return canNext;
+    }
+
+    public BooleanBinding canFinishProperty() {
+        return canFinish;
+    }
+
+    /**
+     * Geht zur vorhergehenden nicht übersprungenen Seite.
+     *
+     * @return {@code true}, wenn umgeschaltet wurde
+     */
+    public boolean prev() {
+        if (!canPrev.get()) {
+            return false;
+        }
+        active.set(prevEnabled(active.get()));
+        return true;
+    }
+
+    /**
+     * Geht zur nächsten nicht übersprungenen Seite und erhöht ggf. den progress. Vorher werden noch ausstehende Überprüfungen nachgeholt,
+     * deren Ergebnis die Seite doch ungültig machen kann.
+     *
+     * @return {@code true}, wenn umgeschaltet wurde
+     */
+    public boolean next() {
+        if (steps.isEmpty()) {
+            return false;
+        }
+
+        getActiveStep().flush();
+        if (!canNext.get()) {
+            return false;
+        }
+
+        int next = nextEnabled(active.get());
+        if (next > progress.get()) {
+            progress.set(next);
+        }
+        active.set(next);
+        return true;
+    }
+
+    /**
+     * Schaltet auf eine nicht übersprungene Seite im schon bearbeiteten Bereich um.
+     *
+     * @return {@code true}, wenn umgeschaltet wurde
+     */
+    public boolean select(int index) {
+        if (index < 0 || index > progress.get() || index >= steps.size() || !steps.get(index).isEnabled()) {
+            return false;
+        }
+        active.set(index);
+        return true;
+    }
+
+    /**
+     * Holt alle noch ausstehenden Überprüfungen nach.
+     *
+     * @return {@code true}, wenn der Wizard danach abgeschlossen werden darf
+     */
+    public boolean finish() {
+        steps.stream()
+                .filter(WizardStep::isEnabled)
+                .forEach(WizardStep::flush);
+        return canFinish.get();
+    }
+
+    /**
+     * Setzt alle Schritte auf ihre Startwerte zurück und beginnt wieder beim ersten nicht übersprungenen Schritt.
+     */
+    public void reset() {
+        steps.forEach(WizardStep::reset);
+        int first = Math.max(nextEnabled(-1), 0);
+        active.set(first);
+        progress.set(first);
+    }
+
+    /**
+     * Übernimmt gespeicherte Werte und Position in einem einzigen Durchlauf. Die Werte werden erst gesetzt und danach
+     * gemeinsam überprüft, sodass jedes Requirement nur einmal überprüft wird, egal wie viele Werte sich ändern.
+     *
+     * @param values ordnet den Namen der Requirements ({@link Requirement#getName()}) jeweils einen Wert zu.
+     *               Der Wert muss zum Typ des jeweiligen Requirements passen.
+     * @param active Index des Schrittes, der bearbeitet wurde
+     * @param progress Index des neusten Schrittes, der erreicht wurde
+     */
+    @SuppressWarnings("unchecked")
+    public void restore(Map<String, ?> values, int active, int progress) {
+        List<Requirement<?>> loaded = new ArrayList<>();
+        for (WizardStep step : steps) {
+            for (Requirement<?> requirement : step.getRequirements()) {
+                String name = requirement.getName();
+                if (name != null && values.containsKey(name)) {
+                    ((Requirement<Object>) requirement).load(values.get(name));
+                    loaded.add(requirement);
+                }
+            }
+        }
+        Requirement.flushAll(loaded);
+
+        int last = Math.max(steps.size() - 1, 0);
+        int p = Math.max(0, Math.min(progress, last));
+        this.progress.set(p);
+        this.active.set(Math.max(0, Math.min(active, p)));
+    }
+
+    /**
+     * Löst alle Bindungen dieses Modells und entsorgt alle Schritte.
+     */
+    public void dispose() {
+        steps.removeListener(indexUpdater);
+        errors.dispose();
+        activeStep.dispose();
+        canPrev.dispose();
+        canNext.dispose();
+        canFinish.dispose();
+        thisStepValid.dispose();
+        invalidSteps.dispose();
+        steps.forEach(WizardStep::dispose);
+    }
+
+    /**
+     * @return Index des nächsten nicht übersprungenen Schrittes nach {@code index} oder {@code -1}
+     */
+    int nextEnabled(int index) {
+        for (int i = index + 1; i < steps.size(); i++) {
+            if (steps.get(i).isEnabled()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Index des letzten nicht übersprungenen Schrittes vor {@code index} oder {@code -1}
+     */
+    int prevEnabled(int index) {
+        for (int i = Math.min(index, steps.size()) - 1; i >= 0; i--) {
+            if (steps.get(i).isEnabled()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void updateIndices(ListChangeListener.Change<? extends WizardStep> change) {
+        int a = active.get();
+        int p = progress.get();
+        int oldSize = steps.size();
+        while (change.next()) {
+            oldSize += change.getRemovedSize() - change.getAddedSize();
+            a = shift(a, change);
+            p = shift(p, change);
+        }
+
+        // Wurde eine leere Liste befüllt, geht es wie bei einem neuen Modell beim ersten Schritt los
+        if (oldSize == 0) {
+            a = Math.max(nextEnabled(-1), 0);
+            p = a;
+        }
+
+        int last = Math.max(steps.size() - 1, 0);
+        a = Math.min(a, last);
+        p = Math.min(p, last);
+
+        // Wurde der aktive Schritt übersprungen, geht es beim Schritt davor weiter, bzw. beim nächsten, wenn es keinen gibt
+        if (a < steps.size() && !steps.get(a).isEnabled()) {
+            int prev = prevEnabled(a);
+            int next = nextEnabled(a);
+            if (prev >= 0) {
+                a = prev;
+            } else if (next >= 0) {
+                a = next;
+            }
+        }
+
+        active.set(a);
+        progress.set(Math.max(a, p));
+    }
+
+    /**
+     * @return der Index, unter dem der Schritt mit dem Index {@code index} nach der Änderung zu finden ist.
+     * Wurde der Schritt selbst entfernt, geht es bei seinem Ersatz oder dem Schritt davor weiter.
+     */
+    private static int shift(int index, ListChangeListener.Change<? extends WizardStep> change) {
+        int from = change.getFrom();
+        if (index < from) {
+            return index;
+        }
+        if (change.wasPermutated()) {
+            return index < change.getTo() ? change.getPermutation(index) : index;
+        }
+        int removed = change.getRemovedSize();
+        if (index < from + removed) {
+            return change.getAddedSize() > 0 ? from : Math.max(from - 1, 0);
+        }
+        return index - removed + change.getAddedSize();
+    }
+
+}
@@ -0,0 +1,72 @@
+package de.fluxparticle.wizardfx;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * Hält fertig erzeugte Wizards mit denselben Schritten bereit, damit ein Wizard, der immer wieder geöffnet wird,
+ * nicht jedes Mal neu aufgebaut werden muss. Zurückgegebene Wizards werden {@link Wizard#reset() zurückgesetzt}
+ * und beim nächsten {@link #acquire()} wieder ausgegeben.
+ */
+public class WizardPool {
+
+    private final Supplier<Wizard> factory;
+
+    private final int capacity;
+
+    private final Deque<Wizard> idle = new ArrayDeque<>();
+
+    /**
+     * @param factory erzeugt einen neuen Wizard mit allen Schritten
+     * @param capacity maximale Anzahl an Wizards, die bereitgehalten werden
+     */
+    public WizardPool(Supplier<Wizard> factory, int capacity) {
+        this.factory = factory;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Erzeugt vorab so viele Wizards, bis die Kapazität erreicht ist.
+     */
+    public void prefill() {
+        while (idle.size() < capacity) {
+            idle.push(factory.get());
+        }
+    }
+
+    /**
+     * @return ein bereitgehaltener oder, falls keiner mehr da ist, ein neuer Wizard
+     */
+    public Wizard acquire() {
+        Wizard wizard = idle.poll();
+        return wizard != null ? wizard : factory.get();
+    }
+
+    /**
+     * Gibt einen Wizard zurück, der nicht mehr angezeigt wird. Er wird zurückgesetzt und bereitgehalten oder,
+     * wenn schon genug bereitstehen, entsorgt.
+     */
+    public void release(Wizard wizard) {
+        wizard.setOnFinish(null);
+        if (idle.size() < capacity) {
+            wizard.reset();
+            idle.push(wizard);
+        } else {
+            wizard.dispose();
+        }
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Entsorgt alle bereitgehaltenen Wizards.
+     */
+    public void dispose() {
+        idle.forEach(Wizard::dispose);
+        idle.clear();
+    }
+
+}
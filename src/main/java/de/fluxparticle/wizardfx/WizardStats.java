@@ -0,0 +1,246 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.Requirement;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sammelt die Messwerte eines {@link Wizard}s und stellt sie per JMX zur Verfügung, siehe
+ * {@link Wizard#registerMBean(String)}. Die Werte werden im JavaFX Application Thread gesammelt und können aus jedem
+ * Thread gelesen werden. Die Messwerte werden je Requirement und Schritt nur schwach referenziert abgelegt, damit die
+ * Statistik keine entfernten Requirements oder Schritte festhält.
+ */
+public class WizardStats implements WizardMetrics, WizardStatsMBean {
+
+    private static final String DOMAIN = "de.fluxparticle.wizardfx";
+
+    private final Histogram validations = new Histogram();
+
+    private final AtomicLong slowValidations = new AtomicLong();
+
+    private final Map<Requirement<?>, RequirementStats> requirements = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<WizardStep, AtomicLong> recomputations = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Histogram transitions = new Histogram();
+
+    private volatile long lastTransition;
+
+    private ObjectName objectName;
+
+    @Override
+    public void validated(WizardStep step, Requirement<?> requirement, long nanos) {
+        validations.record(nanos);
+        requirements.computeIfAbsent(requirement, r -> new RequirementStats(label(step, r))).histogram.record(nanos);
+    }
+
+    @Override
+    public void slowValidation(WizardStep step, Requirement<?> requirement, long nanos) {
+        slowValidations.incrementAndGet();
+    }
+
+    @Override
+    public void stepValidityRecomputed(WizardStep step, boolean valid) {
+        recomputations.computeIfAbsent(step, s -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public void transition(WizardStep from, WizardStep to, long nanos) {
+        transitions.record(nanos);
+        lastTransition = nanos;
+    }
+
+    /**
+     * Meldet diese Statistik beim {@link ManagementFactory#getPlatformMBeanServer() Platform MBeanServer} an.
+     *
+     * @param name unterscheidet mehrere Wizards
+     * @return der Name, unter dem die Statistik angemeldet wurde
+     */
+    public ObjectName register(String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(DOMAIN + ":type=Wizard,name=" + ObjectName.quote(name));
+        server.registerMBean(this, objectName);
+        this.objectName = objectName;
+        return objectName;
+    }
+
+    /**
+     * Meldet diese Statistik wieder ab, falls sie angemeldet ist.
+     */
+    public void unregister() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    @Override
+    public long getValidations() {
+        return validations.getCount();
+    }
+
+    @Override
+    public long getSlowValidations() {
+        return slowValidations.get();
+    }
+
+    @Override
+    public double getMeanValidationMicros() {
+        return validations.getMean() / 1e3;
+    }
+
+    @Override
+    public double getMaxValidationMicros() {
+        return validations.getMax() / 1e3;
+    }
+
+    @Override
+    public long[] getValidationHistogram() {
+        return validations.getBuckets();
+    }
+
+    @Override
+    public String[] getRequirementStatistics() {
+        List<String> lines = new ArrayList<>();
+        synchronized (requirements) {
+            requirements.values().forEach(stats -> lines.add(String.format("%s: n=%d, mean=%.1fµs, max=%.1fµs",
+                    stats.label, stats.histogram.getCount(), stats.histogram.getMean() / 1e3, stats.histogram.getMax() / 1e3)));
+        }
+        Collections.sort(lines);
+        return lines.toArray(new String[0]);
+    }
+
+    @Override
+    public String[] getStepValidityRecomputations() {
+        List<String> lines = new ArrayList<>();
+        synchronized (recomputations) {
+            recomputations.forEach((step, count) -> lines.add(step.getText() + ": " + count.get()));
+        }
+        Collections.sort(lines);
+        return lines.toArray(new String[0]);
+    }
+
+    @Override
+    public long getTransitions() {
+        return transitions.getCount();
+    }
+
+    @Override
+    public double getLastTransitionMillis() {
+        return lastTransition / 1e6;
+    }
+
+    @Override
+    public double getMeanTransitionMillis() {
+        return transitions.getMean() / 1e6;
+    }
+
+    @Override
+    public double getMaxTransitionMillis() {
+        return transitions.getMax() / 1e6;
+    }
+
+    @Override
+    public void reset() {
+        validations.reset();
+        slowValidations.set(0);
+        requirements.clear();
+        recomputations.clear();
+        transitions.reset();
+        lastTransition = 0;
+    }
+
+    /**
+     * Wird nur bei der ersten Messung eines Requirements aufgerufen, die Position bleibt also auch dann erhalten,
+     * wenn davor später Requirements entfernt werden.
+     *
+     * @return der Name des Schrittes mit dem Namen des Requirements oder, falls es keinen hat, dessen Position darin
+     */
+    private static String label(WizardStep step, Requirement<?> requirement) {
+        if (requirement.getName() != null) {
+            return step.getText() + ": " + requirement.getName();
+        }
+        return step.getText() + "[" + step.getRequirements().indexOf(requirement) + "]";
+    }
+
+    private static class RequirementStats {
+
+        private final String label;
+
+        private final Histogram histogram = new Histogram();
+
+        private RequirementStats(String label) {
+            this.label = label;
+        }
+
+    }
+
+    /**
+     * Zählt Dauern in Bereichen, deren Grenzen sich jeweils verdoppeln, beginnend bei einer Mikrosekunde.
+     */
+    private static class Histogram {
+
+        private static final int BUCKETS = 24;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        private final AtomicLong count = new AtomicLong();
+
+        private final AtomicLong sum = new AtomicLong();
+
+        private final AtomicLong max = new AtomicLong();
+
+        private void record(long nanos) {
+            long micros = nanos / 1000;
+            int bucket = 64 - Long.numberOfLeadingZeros(micros);
+            buckets.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+            count.incrementAndGet();
+            sum.addAndGet(nanos);
+            if (nanos > max.get()) {
+                max.set(nanos);
+            }
+        }
+
+        private long getCount() {
+            return count.get();
+        }
+
+        private double getMean() {
+            long n = count.get();
+            return n == 0 ? 0 : (double) sum.get() / n;
+        }
+
+        private long getMax() {
+            return max.get();
+        }
+
+        private long[] getBuckets() {
+            long[] result = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                result[i] = buckets.get(i);
+            }
+            return result;
+        }
+
+        private void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            count.set(0);
+            sum.set(0);
+            max.set(0);
+        }
+
+    }
+
+}
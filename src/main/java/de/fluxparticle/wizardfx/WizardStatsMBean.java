@@ -0,0 +1,46 @@
+package de.fluxparticle.wizardfx;
+
+/**
+ * JMX-Schnittstelle von {@link WizardStats}.
+ */
+public interface WizardStatsMBean {
+
+    long getValidations();
+
+    long getSlowValidations();
+
+    double getMeanValidationMicros();
+
+    double getMaxValidationMicros();
+
+    /**
+     * @return Anzahl der Überprüfungen je Bereich. Der Bereich {@code i} enthält alle Überprüfungen, die kürzer als
+     * 2<sup>i</sup> Mikrosekunden waren und nicht in einen kleineren Bereich fallen. Der letzte Bereich enthält alle
+     * längeren Überprüfungen.
+     */
+    long[] getValidationHistogram();
+
+    /**
+     * @return pro Requirement eine Zeile mit Anzahl, mittlerer und maximaler Dauer der Überprüfungen
+     */
+    String[] getRequirementStatistics();
+
+    /**
+     * @return pro Schritt eine Zeile mit der Anzahl der Neuberechnungen seiner Gültigkeit
+     */
+    String[] getStepValidityRecomputations();
+
+    long getTransitions();
+
+    double getLastTransitionMillis();
+
+    double getMeanTransitionMillis();
+
+    double getMaxTransitionMillis();
+
+    /**
+     * Setzt alle Zähler zurück.
+     */
+    void reset();
+
+}
@@ -1,14 +1,18 @@
 package de.fluxparticle.wizardfx;
 
 import de.fluxparticle.wizardfx.requirement.Requirement;
+import de.fluxparticle.wizardfx.requirement.ValidationPolicy;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.*;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.scene.Node;
-import org.fxmisc.easybind.EasyBind;
 
-import java.util.Optional;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
 /**
  * Created by sreinck on 15.09.17.
@@ -21,19 +25,68 @@ public class WizardStep {
 
     private final ObservableList<Requirement<?>> requirements = FXCollections.observableArrayList();
 
-    private final ReadOnlyBooleanWrapper allValid = new ReadOnlyBooleanWrapper();
+    private final ValidityCounter<Requirement<?>> invalidRequirements = new ValidityCounter<>(Requirement::validProperty);
+
+    private final ErrorSummary errors = new ErrorSummary(this);
+
+    private final ObjectProperty<ValidationPolicy> validationPolicy = new SimpleObjectProperty<>();
+
+    private final BooleanProperty enabled = new SimpleBooleanProperty(true);
+
+    private final BooleanBinding skippedOrValid;
+
+    private final Supplier<Node> contentFactory;
+
+    private final ListChangeListener<Requirement<?>> policyBinder = change -> {
+        while (change.next()) {
+            change.getRemoved().forEach(requirement -> requirement.defaultValidationPolicyProperty().unbind());
+            change.getAddedSubList().forEach(requirement -> requirement.defaultValidationPolicyProperty().bind(validationPolicy));
+        }
+    };
 
     /**
      * @param text Name dieses Schritts
      * @param content Inhalt, der für dieses Schritt angezeigt werden soll
      */
     public WizardStep(String text, Node content) {
+        this(text, content, null);
+    }
+
+    /**
+     * Der Inhalt wird erst erzeugt, wenn der Schritt zum ersten Mal angezeigt wird, und kann später wieder verworfen
+     * werden. Die Requirements gehören deshalb zum Schritt und nicht zum Inhalt: Der Inhalt sollte sich mit
+     * {@link javafx.beans.property.Property#bindBidirectional} an deren {@code data} binden, damit die Werte beim
+     * erneuten Erzeugen erhalten bleiben.
+     *
+     * @param text Name dieses Schritts
+     * @param contentFactory erzeugt den Inhalt, der für dieses Schritt angezeigt werden soll
+     */
+    public WizardStep(String text, Supplier<Node> contentFactory) {
+        this(text, null, contentFactory);
+    }
+
+    private WizardStep(String text, Node content, Supplier<Node> contentFactory) {
         this.text.setValue(text);
         this.content.setValue(content);
+        this.contentFactory = contentFactory;
+
+        /*
+         * Es wird nur gezählt, wie viele Requirements ungültig sind. Requirements, deren Überprüfung noch läuft,
+         * gelten als noch nicht gültig.
+         */
+        invalidRequirements.track(requirements);
 
-        ObservableList<ObservableValue<Optional<String>>> errors = EasyBind.map(requirements, Requirement::errorProperty);
+        // Die Fehlermeldungen werden in der Reihenfolge der Requirements gesammelt
+        errors.track(requirements);
 
-        allValid.bind(EasyBind.combine(errors, stream -> stream.noneMatch(Optional::isPresent)));
+        // Requirements ohne eigene Strategie übernehmen die Strategie dieses Schrittes
+        requirements.addListener(policyBinder);
+
+        // Ein übersprungener Schritt hält den Wizard nicht auf, egal ob seine Requirements erfüllt sind
+        skippedOrValid = Bindings.createBooleanBinding(
+                () -> !enabled.get() || invalidRequirements.allValidProperty().get(),
+                enabled, invalidRequirements.allValidProperty()
+        );
     }
 
     public String getText() {
@@ -60,12 +113,156 @@ public class WizardStep {
         this.content.set(content);
     }
 
+    /**
+     * @return {@code true}, wenn der Inhalt erst bei Bedarf erzeugt wird und wieder verworfen werden kann
+     */
+    boolean isLazy() {
+        return contentFactory != null;
+    }
+
+    /**
+     * Erzeugt den Inhalt, falls er noch nicht existiert.
+     */
+    void loadContent() {
+        if (needsContent()) {
+            content.set(createContent());
+        }
+    }
+
+    /**
+     * @return {@code true}, wenn der Inhalt erst noch erzeugt werden muss
+     */
+    boolean needsContent() {
+        return contentFactory != null && content.get() == null;
+    }
+
+    /**
+     * Erzeugt den Inhalt, ohne ihn zu übernehmen. Kann auch außerhalb des JavaFX Application Thread aufgerufen werden,
+     * sofern die {@code contentFactory} das zulässt.
+     */
+    Node createContent() {
+        return contentFactory.get();
+    }
+
+    /**
+     * Übernimmt einen vorab erzeugten Inhalt, falls bis dahin noch kein Inhalt erzeugt wurde.
+     *
+     * @return {@code true}, wenn der Inhalt übernommen wurde
+     */
+    boolean offerContent(Node node) {
+        if (needsContent() && node != null) {
+            content.set(node);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Verwirft den Inhalt, sofern er später wieder erzeugt werden kann.
+     */
+    void unloadContent() {
+        if (contentFactory != null) {
+            content.set(null);
+        }
+    }
+
     public ObservableList<Requirement<?>> getRequirements() {
         return requirements;
     }
 
     public ReadOnlyBooleanProperty allValidProperty() {
-        return allValid.getReadOnlyProperty();
+        return invalidRequirements.allValidProperty();
+    }
+
+    /**
+     * @return die aktuellen Fehlermeldungen aller Requirements dieses Schrittes in der Reihenfolge der Requirements.
+     * Ändert sich eine Fehlermeldung, meldet die Liste nur das Entfernen bzw. Einfügen dieses einen Eintrags.
+     */
+    public ObservableList<RequirementError> getErrors() {
+        return errors.getErrors();
+    }
+
+    /**
+     * @return die Fehlermeldung des ersten fehlerhaften Requirements oder {@code null}
+     */
+    public RequirementError getFirstError() {
+        ObservableList<RequirementError> list = errors.getErrors();
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    /**
+     * @return {@code true}, wenn dieser Schritt übersprungen wird oder alle Requirements gültig sind
+     */
+    ObservableValue<Boolean> skippedOrValidProperty() {
+        return skippedOrValid;
+    }
+
+    public boolean isEnabled() {
+        return enabled.get();
+    }
+
+    /**
+     * @return {@code false}, wenn dieser Schritt übersprungen werden soll. Übersprungene Schritte werden bei der
+     * Navigation ausgelassen und zählen bei der Gültigkeit des Wizards nicht mit. Kann an eine Bedingung gebunden werden,
+     * z.B. an eine Auswahl in einem vorherigen Schritt.
+     */
+    public BooleanProperty enabledProperty() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled.set(enabled);
+    }
+
+    /**
+     * @param listener bekommt nach jeder Neuberechnung der Gültigkeit die Anzahl der ungültigen Requirements
+     *                 oder {@code null}
+     */
+    void setValidityRecomputeListener(IntConsumer listener) {
+        invalidRequirements.setRecomputeListener(listener);
+    }
+
+    public ValidationPolicy getValidationPolicy() {
+        return validationPolicy.get();
+    }
+
+    /**
+     * @return die Strategie für alle Requirements dieses Schrittes, die keine eigene haben
+     */
+    public ObjectProperty<ValidationPolicy> validationPolicyProperty() {
+        return validationPolicy;
+    }
+
+    public void setValidationPolicy(ValidationPolicy validationPolicy) {
+        this.validationPolicy.set(validationPolicy);
+    }
+
+    /**
+     * Setzt alle Requirements dieses Schrittes auf ihren Startwert zurück.
+     */
+    public void reset() {
+        requirements.forEach(Requirement::reset);
+    }
+
+    /**
+     * Löst alle Bindungen und Listener dieses Schrittes und entsorgt seine Requirements sowie seinen Inhalt.
+     */
+    public void dispose() {
+        requirements.removeListener(policyBinder);
+        skippedOrValid.dispose();
+        invalidRequirements.dispose();
+        errors.dispose();
+        requirements.forEach(Requirement::dispose);
+        if (!content.isBound()) {
+            content.set(null);
+        }
+    }
+
+    /**
+     * Überprüft alle noch ausstehenden Werte dieses Schrittes sofort.
+     */
+    public void flush() {
+        requirements.forEach(Requirement::flush);
     }
 
 }
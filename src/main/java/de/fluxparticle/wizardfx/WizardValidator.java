@@ -0,0 +1,228 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.Requirement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Überprüft viele Datensätze nach denselben Regeln wie ein interaktiver {@link Wizard}, ohne dafür einen Wizard
+ * zu erzeugen oder Listener an Properties zu hängen. Ein Datensatz ordnet dem Namen eines Requirements
+ * ({@link Requirement#getName()}) einen Wert zu. Requirements ohne Namen werden nicht überprüft.
+ *
+ * Die Datensätze werden parallel überprüft, ohne Bindings oder Properties zu benutzen. Überprüft wird mit dem
+ * {@link Requirement#setRecordValidator record validator}, der auch die übrigen Werte des Datensatzes bekommt, oder,
+ * wenn keiner gesetzt ist, mit {@link Requirement#validate(Object)}. Letzteres geht nur für Requirements, die
+ * {@link Requirement#isSelfContained() in sich geschlossen} sind. Die Validatoren müssen von mehreren Threads
+ * gleichzeitig aufgerufen werden können.
+ */
+public class WizardValidator {
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Pro Schritt alle Requirements mit Namen, für übersprungene Schritte eine leere Liste. Wird einmalig erzeugt,
+     * damit die Listen der Schritte nicht aus mehreren Threads gelesen werden.
+     */
+    private final List<List<Requirement<?>>> steps = new ArrayList<>();
+
+    /**
+     * @param model liefert die Schritte und deren Requirements
+     */
+    public WizardValidator(WizardModel model) {
+        this(model, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Schritte, die beim Erzeugen {@link WizardStep#isEnabled() übersprungen} werden, werden wie beim Abschließen
+     * des Wizards nicht überprüft.
+     *
+     * @param model liefert die Schritte und deren Requirements
+     * @param pool in diesem Pool wird bei {@link #validateAll(Stream, Consumer)} überprüft
+     * @throws IllegalArgumentException wenn ein Requirement mit Namen weder in sich geschlossen ist noch einen
+     * record validator hat
+     */
+    public WizardValidator(WizardModel model, ForkJoinPool pool) {
+        this.pool = pool;
+        for (WizardStep step : model.getSteps()) {
+            List<Requirement<?>> requirements = new ArrayList<>();
+            steps.add(requirements);
+            if (!step.isEnabled()) {
+                continue;
+            }
+            for (Requirement<?> requirement : step.getRequirements()) {
+                if (requirement.getName() == null) {
+                    continue;
+                }
+                if (requirement.getRecordValidator() == null && !requirement.isSelfContained()) {
+                    throw new IllegalArgumentException("requirement '" + requirement.getName() + "' depends on other values and needs a record validator");
+                }
+                requirements.add(requirement);
+            }
+        }
+    }
+
+    /**
+     * Wirft ein Validator eine Exception, wird sie im {@link Report} festgehalten und die übrigen Requirements werden
+     * trotzdem überprüft. Das gilt auch für eine {@link ClassCastException}, weil ein Wert nicht den Typ hat, den der
+     * Validator erwartet.
+     *
+     * @param record ordnet den Namen der Requirements jeweils einen Wert zu
+     * @return alle Fehler in diesem Datensatz
+     */
+    public Report validate(Map<String, Object> record) {
+        Map<String, Object> values = Collections.unmodifiableMap(record);
+        Map<Integer, Map<String, String>> errors = new LinkedHashMap<>();
+        Map<String, RuntimeException> failures = new LinkedHashMap<>();
+        for (int i = 0; i < steps.size(); i++) {
+            Map<String, String> stepErrors = new LinkedHashMap<>();
+            for (Requirement<?> requirement : steps.get(i)) {
+                try {
+                    validate(requirement, values.get(requirement.getName()), values)
+                            .ifPresent(error -> stepErrors.put(requirement.getName(), error));
+                } catch (RuntimeException e) {
+                    failures.put(requirement.getName(), e);
+                }
+            }
+            if (!stepErrors.isEmpty()) {
+                errors.put(i, Collections.unmodifiableMap(stepErrors));
+            }
+        }
+        return new Report(record, Collections.unmodifiableMap(errors), Collections.unmodifiableMap(failures));
+    }
+
+    /**
+     * Überprüft die Datensätze parallel in dem Pool, in dem der Stream ausgewertet wird.
+     *
+     * @param records die zu überprüfenden Datensätze
+     * @return zu jedem Datensatz einen {@link Report}, nicht unbedingt in derselben Reihenfolge
+     */
+    public Stream<Report> validateAll(Stream<Map<String, Object>> records) {
+        return records.parallel().map(this::validate);
+    }
+
+    /**
+     * Überprüft die Datensätze parallel im Pool dieses Validators und wartet, bis alle überprüft sind.
+     *
+     * @param records die zu überprüfenden Datensätze
+     * @param consumer bekommt zu jedem Datensatz einen {@link Report}, auch aus mehreren Threads gleichzeitig
+     * @return wie viele Datensätze in welcher Zeit überprüft wurden
+     */
+    public Summary validateAll(Stream<Map<String, Object>> records, Consumer<? super Report> consumer) {
+        LongAdder count = new LongAdder();
+        long start = System.nanoTime();
+        pool.invoke(ForkJoinTask.adapt(() -> validateAll(records).forEach(report -> {
+            count.increment();
+            consumer.accept(report);
+        })));
+        return new Summary(count.sum(), System.nanoTime() - start);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Optional<String> validate(Requirement<T> requirement, Object value, Map<String, Object> record) {
+        // Ein fehlender Wert wird, wie bei data, nicht überprüft
+        if (value == null) {
+            return Optional.empty();
+        }
+        BiFunction<? super T, Map<String, Object>, Optional<String>> recordValidator = requirement.getRecordValidator();
+        Optional<String> error = recordValidator != null
+                ? recordValidator.apply((T) value, record)
+                : requirement.validate((T) value);
+        return error != null ? error : Optional.empty();
+    }
+
+    /**
+     * Das Ergebnis für einen einzelnen Datensatz.
+     */
+    public static class Report {
+
+        private final Map<String, Object> record;
+
+        private final Map<Integer, Map<String, String>> errors;
+
+        private final Map<String, RuntimeException> failures;
+
+        private Report(Map<String, Object> record, Map<Integer, Map<String, String>> errors, Map<String, RuntimeException> failures) {
+            this.record = record;
+            this.errors = errors;
+            this.failures = failures;
+        }
+
+        public Map<String, Object> getRecord() {
+            return record;
+        }
+
+        /**
+         * @return {@code true}, wenn es weder Fehlermeldungen noch fehlgeschlagene Überprüfungen gibt
+         */
+        public boolean isValid() {
+            return errors.isEmpty() && failures.isEmpty();
+        }
+
+        /**
+         * @return zu jedem Schritt mit Fehlern die Fehlermeldungen nach Namen der Requirements
+         */
+        public Map<Integer, Map<String, String>> getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return die Fehlermeldungen eines Schrittes nach Namen der Requirements
+         */
+        public Map<String, String> getErrors(int step) {
+            return errors.getOrDefault(step, Collections.emptyMap());
+        }
+
+        /**
+         * @return zu jedem Requirement, dessen Validator eine Exception geworfen hat, diese Exception nach Namen
+         */
+        public Map<String, RuntimeException> getFailures() {
+            return failures;
+        }
+
+    }
+
+    /**
+     * Wie viele Datensätze in welcher Zeit überprüft wurden.
+     */
+    public static class Summary {
+
+        private final long records;
+
+        private final long nanos;
+
+        private Summary(long records, long nanos) {
+            this.records = records;
+            this.nanos = nanos;
+        }
+
+        public long getRecords() {
+            return records;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public double getRecordsPerSecond() {
+            return nanos > 0 ? records * 1e9 / nanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d records in %.3f s (%.1f records/s)", records, nanos / 1e9, getRecordsPerSecond());
+        }
+
+    }
+
+}
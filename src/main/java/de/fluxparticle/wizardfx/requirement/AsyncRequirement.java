@@ -0,0 +1,197 @@
+package de.fluxparticle.wizardfx.requirement;
+
+import javafx.application.Platform;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.SimpleObjectProperty;
+import org.fxmisc.easybind.EasyBind;
+import org.fxmisc.easybind.monadic.MonadicBinding;
+import org.fxmisc.easybind.monadic.MonadicObservableValue;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Die Klasse {@link AsyncRequirement} führt die Überprüfung nicht im JavaFX Application Thread aus, sondern auf einem
+ * frei wählbaren {@link Executor}. Ändert sich der Wert, bevor die Überprüfung fertig ist, wird sie abgebrochen und
+ * ihr Ergebnis verworfen. Während eine Überprüfung läuft, ist {@link #pendingProperty()} {@code true}.
+ *
+ * @param <T> Eingabe-Typ
+ */
+public class AsyncRequirement<T> extends Requirement<T> {
+
+    private final Validation<T> validation;
+
+    /**
+     * Die Ergebnisse werden per {@link Platform#runLater(Runnable)} veröffentlicht.
+     *
+     * @param validator eine Funktion, die einen Wert vom Typ T in eine optionale Fehlermeldung konvertiert
+     *                  und dabei von beliebigen Threads aus aufgerufen werden kann
+     * @param executor führt die Überprüfungen aus
+     */
+    public AsyncRequirement(Function<T, Optional<String>> validator, Executor executor) {
+        this(validator, executor, Platform::runLater);
+    }
+
+    /**
+     * @param validator eine Funktion, die einen Wert vom Typ T in eine optionale Fehlermeldung konvertiert
+     *                  und dabei von beliebigen Threads aus aufgerufen werden kann
+     * @param executor führt die Überprüfungen aus
+     * @param publisher übergibt die Ergebnisse an den Thread, in dem {@code data} verändert wird
+     */
+    public AsyncRequirement(Function<T, Optional<String>> validator, Executor executor, Executor publisher) {
+        this(new Validation<>(validator, executor, publisher));
+    }
+
+    private AsyncRequirement(Validation<T> validation) {
+        super(validation::attach);
+        this.validation = validation;
+    }
+
+    /**
+     * Überprüft direkt im aufrufenden Thread.
+     */
+    @Override
+    public Optional<String> validate(T value) {
+        return value != null ? validation.validator.apply(value) : Optional.empty();
+    }
+
+    /**
+     * Startet eine neue Überprüfung des aktuellen Wertes.
+     */
+    @Override
+    protected void revalidate() {
+        validation.revalidate();
+    }
+
+    /**
+     * Bricht auch eine laufende Überprüfung ab.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+        validation.cancel();
+        validation.pending.set(false);
+    }
+
+    @Override
+    public boolean isSelfContained() {
+        return !hasDependencies();
+    }
+
+    @Override
+    public ReadOnlyBooleanProperty pendingProperty() {
+        return validation.pending.getReadOnlyProperty();
+    }
+
+    /**
+     * Hält den Zustand der Überprüfung. Wird vor dem Aufruf des Super-Konstruktors erzeugt,
+     * damit der Validator dort schon an {@code data} gebunden werden kann.
+     */
+    private static class Validation<T> {
+
+        private final Function<T, Optional<String>> validator;
+
+        private final Executor executor;
+
+        private final Executor publisher;
+
+        private final ObjectProperty<Optional<String>> error = new SimpleObjectProperty<>();
+
+        private final ReadOnlyBooleanWrapper pending = new ReadOnlyBooleanWrapper(false);
+
+        /**
+         * Wird bei jeder Änderung erhöht. Nur ein Ergebnis zur aktuellen Generation wird übernommen.
+         */
+        private long generation;
+
+        private FutureTask<Optional<String>> running;
+
+        private MonadicObservableValue<T> data;
+
+        private Validation(Function<T, Optional<String>> validator, Executor executor, Executor publisher) {
+            this.validator = validator;
+            this.executor = executor;
+            this.publisher = publisher;
+        }
+
+        private MonadicBinding<Optional<String>> attach(MonadicObservableValue<T> data) {
+            this.data = data;
+            data.addListener((observable, oldValue, newValue) -> revalidate(newValue));
+            revalidate(data.getValue());
+            return EasyBind.map(error, Function.identity());
+        }
+
+        private void revalidate() {
+            revalidate(data.getValue());
+        }
+
+        private void cancel() {
+            if (running != null) {
+                running.cancel(true);
+                running = null;
+            }
+            generation++;
+        }
+
+        private void revalidate(T value) {
+            cancel();
+
+            long current = generation;
+
+            if (value == null) {
+                error.set(null);
+                pending.set(false);
+                return;
+            }
+
+            pending.set(true);
+
+            running = new FutureTask<Optional<String>>(() -> validator.apply(value)) {
+                @Override
+                protected void done() {
+                    if (isCancelled()) {
+                        return;
+                    }
+
+                    Optional<String> result;
+                    try {
+                        result = get();
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (ExecutionException e) {
+                        // Die Exception selbst, da ihre Nachricht auch null sein kann
+                        result = Optional.of(String.valueOf(e.getCause()));
+                    }
+
+                    Optional<String> finalResult = result;
+                    publisher.execute(() -> publish(current, finalResult));
+                }
+            };
+
+            try {
+                executor.execute(running);
+            } catch (RejectedExecutionException e) {
+                // z.B. weil der Executor beendet wurde. Sonst bliebe die Überprüfung für immer ausstehend.
+                running = null;
+                error.set(Optional.of(String.valueOf(e)));
+                pending.set(false);
+            }
+        }
+
+        private void publish(long current, Optional<String> result) {
+            if (current == generation) {
+                running = null;
+                error.set(result);
+                pending.set(false);
+            }
+        }
+
+    }
+
+}
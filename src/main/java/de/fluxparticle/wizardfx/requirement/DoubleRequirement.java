@@ -0,0 +1,82 @@
+package de.fluxparticle.wizardfx.requirement;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+
+/**
+ * Ein {@link Requirement} für double-Werte, z.B. für einen Slider. Der Wert liegt in einer {@link DoubleProperty},
+ * sodass bei einer Änderung nichts geboxt wird. Die Überprüfung sollte eine konstante Fehlermeldung liefern.
+ */
+public class DoubleRequirement extends PrimitiveRequirement<Double> {
+
+    private final DoubleProperty value;
+
+    /**
+     * @param validator liefert zu einem Wert {@code null} oder eine konstante Fehlermeldung
+     */
+    public DoubleRequirement(Validator validator) {
+        this(validator, 0);
+    }
+
+    /**
+     * @param validator liefert zu einem Wert {@code null} oder eine konstante Fehlermeldung
+     * @param initialValue der Wert zu Beginn
+     */
+    public DoubleRequirement(Validator validator, double initialValue) {
+        this(new SimpleDoubleProperty(initialValue), validator);
+    }
+
+    private DoubleRequirement(DoubleProperty value, Validator validator) {
+        super(value, Double.doubleToRawLongBits(value.get()), bits -> validator.validate(Double.longBitsToDouble(bits)));
+        this.value = value;
+    }
+
+    public DoubleProperty valueProperty() {
+        return value;
+    }
+
+    public double getValue() {
+        return value.get();
+    }
+
+    public void setValue(double value) {
+        this.value.set(value);
+    }
+
+    @Override
+    protected long bits() {
+        return Double.doubleToRawLongBits(value.get());
+    }
+
+    @Override
+    protected void setBits(long bits) {
+        value.set(Double.longBitsToDouble(bits));
+    }
+
+    @Override
+    protected long toBits(Double value) {
+        return Double.doubleToRawLongBits(value);
+    }
+
+    @Override
+    protected Double fromBits(long bits) {
+        return Double.longBitsToDouble(bits);
+    }
+
+    @Override
+    protected ObjectProperty<Double> createDataProperty() {
+        return value.asObject();
+    }
+
+    @FunctionalInterface
+    public interface Validator {
+
+        /**
+         * @return {@code null}, wenn der Wert gültig ist, sonst eine konstante Fehlermeldung
+         */
+        String validate(double value);
+
+    }
+
+}
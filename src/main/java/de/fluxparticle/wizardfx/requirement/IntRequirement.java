@@ -0,0 +1,82 @@
+package de.fluxparticle.wizardfx.requirement;
+
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+
+/**
+ * Ein {@link Requirement} für int-Werte, z.B. für eine Anzahl. Der Wert liegt in einer {@link IntegerProperty},
+ * sodass bei einer Änderung nichts geboxt wird. Die Überprüfung sollte eine konstante Fehlermeldung liefern.
+ */
+public class IntRequirement extends PrimitiveRequirement<Integer> {
+
+    private final IntegerProperty value;
+
+    /**
+     * @param validator liefert zu einem Wert {@code null} oder eine konstante Fehlermeldung
+     */
+    public IntRequirement(Validator validator) {
+        this(validator, 0);
+    }
+
+    /**
+     * @param validator liefert zu einem Wert {@code null} oder eine konstante Fehlermeldung
+     * @param initialValue der Wert zu Beginn
+     */
+    public IntRequirement(Validator validator, int initialValue) {
+        this(new SimpleIntegerProperty(initialValue), validator);
+    }
+
+    private IntRequirement(IntegerProperty value, Validator validator) {
+        super(value, value.get(), bits -> validator.validate((int) bits));
+        this.value = value;
+    }
+
+    public IntegerProperty valueProperty() {
+        return value;
+    }
+
+    public int getValue() {
+        return value.get();
+    }
+
+    public void setValue(int value) {
+        this.value.set(value);
+    }
+
+    @Override
+    protected long bits() {
+        return value.get();
+    }
+
+    @Override
+    protected void setBits(long bits) {
+        value.set((int) bits);
+    }
+
+    @Override
+    protected long toBits(Integer value) {
+        return value;
+    }
+
+    @Override
+    protected Integer fromBits(long bits) {
+        return (int) bits;
+    }
+
+    @Override
+    protected ObjectProperty<Integer> createDataProperty() {
+        return value.asObject();
+    }
+
+    @FunctionalInterface
+    public interface Validator {
+
+        /**
+         * @return {@code null}, wenn der Wert gültig ist, sonst eine konstante Fehlermeldung
+         */
+        String validate(int value);
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package de.fluxparticle.wizardfx.requirement;
+
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleLongProperty;
+
+/**
+ * Ein {@link Requirement} für long-Werte, z.B. für einen Betrag in Cent. Der Wert liegt in einer {@link LongProperty},
+ * sodass bei einer Änderung nichts geboxt wird. Die Überprüfung sollte eine konstante Fehlermeldung liefern.
+ */
+public class LongRequirement extends PrimitiveRequirement<Long> {
+
+    private final LongProperty value;
+
+    /**
+     * @param validator liefert zu einem Wert {@code null} oder eine konstante Fehlermeldung
+     */
+    public LongRequirement(Validator validator) {
+        this(validator, 0);
+    }
+
+    /**
+     * @param validator liefert zu einem Wert {@code null} oder eine konstante Fehlermeldung
+     * @param initialValue der Wert zu Beginn
+     */
+    public LongRequirement(Validator validator, long initialValue) {
+        this(new SimpleLongProperty(initialValue), validator);
+    }
+
+    private LongRequirement(LongProperty value, Validator validator) {
+        super(value, value.get(), bits -> validator.validate(bits));
+        this.value = value;
+    }
+
+    public LongProperty valueProperty() {
+        return value;
+    }
+
+    public long getValue() {
+        return value.get();
+    }
+
+    public void setValue(long value) {
+        this.value.set(value);
+    }
+
+    @Override
+    protected long bits() {
+        return value.get();
+    }
+
+    @Override
+    protected void setBits(long bits) {
+        value.set(bits);
+    }
+
+    @Override
+    protected long toBits(Long value) {
+        return value;
+    }
+
+    @Override
+    protected Long fromBits(long bits) {
+        return bits;
+    }
+
+    @Override
+    protected ObjectProperty<Long> createDataProperty() {
+        return value.asObject();
+    }
+
+    @FunctionalInterface
+    public interface Validator {
+
+        /**
+         * @return {@code null}, wenn der Wert gültig ist, sonst eine konstante Fehlermeldung
+         */
+        String validate(long value);
+
+    }
+
+}
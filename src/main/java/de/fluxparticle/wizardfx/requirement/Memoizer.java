@@ -0,0 +1,91 @@
+package de.fluxparticle.wizardfx.requirement;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Merkt sich die Ergebnisse einer Funktion für die zuletzt benutzten Eingaben. Ist die Kapazität erreicht, wird das
+ * Ergebnis verworfen, das am längsten nicht mehr benutzt wurde. Kann von mehreren Threads gleichzeitig benutzt werden.
+ *
+ * Die Funktion darf ansonsten nur von ihrer Eingabe abhängen. Hängt sie auch von anderen Werten ab, muss der
+ * Zwischenspeicher nach jeder Änderung dieser Werte mit {@link #clear()} geleert werden.
+ *
+ * @param <T> Eingabe-Typ
+ * @param <R> Ausgabe-Typ
+ */
+public class Memoizer<T, R> implements Function<T, R> {
+
+    private final Function<T, R> function;
+
+    private final Map<T, R> cache;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Wird bei {@link #clear()} erhöht, damit Ergebnisse, die noch davor berechnet wurden, nicht gespeichert werden
+     */
+    private long generation;
+
+    /**
+     * @param function die Funktion, deren Ergebnisse zwischengespeichert werden
+     * @param capacity maximale Anzahl an Ergebnissen
+     */
+    public Memoizer(Function<T, R> function, int capacity) {
+        this.function = function;
+        this.cache = new LinkedHashMap<T, R>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<T, R> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public R apply(T value) {
+        long start;
+        synchronized (cache) {
+            R result = cache.get(value);
+            if (result != null || cache.containsKey(value)) {
+                hits.increment();
+                return result;
+            }
+            start = generation;
+        }
+
+        // Die Funktion wird außerhalb der Sperre ausgeführt, damit sich parallele Überprüfungen nicht blockieren
+        misses.increment();
+        R result = function.apply(value);
+        synchronized (cache) {
+            if (generation == start) {
+                cache.put(value, result);
+            }
+        }
+        return result;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            generation++;
+            cache.clear();
+        }
+    }
+
+}
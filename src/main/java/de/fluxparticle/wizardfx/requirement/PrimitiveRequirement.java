@@ -0,0 +1,187 @@
+package de.fluxparticle.wizardfx.requirement;
+
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.Property;
+import javafx.beans.property.SimpleObjectProperty;
+import org.fxmisc.easybind.EasyBind;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Gemeinsame Basis für Requirements, deren Wert in einer primitiven Property liegt. Die Werte werden hier als
+ * {@code long} verwaltet, die Unterklassen wandeln nur zwischen diesem und ihrem eigenen Typ um. Die Validatoren
+ * liefern {@code null} oder eine Fehlermeldung. Zu den zuletzt benutzten Fehlermeldungen wird immer dasselbe
+ * {@link Optional} benutzt, sodass bei einer Änderung weder geboxt noch ein {@link Optional} erzeugt wird, solange
+ * die Fehlermeldungen konstant sind.
+ *
+ * @param <T> der geboxte Typ, in dem der Wert über {@link #dataProperty()} verfügbar ist
+ */
+public abstract class PrimitiveRequirement<T extends Number> extends Requirement<T> {
+
+    /**
+     * So viele verschiedene Fehlermeldungen werden pro Requirement wiederverwendet
+     */
+    private static final int ERROR_CACHE_SIZE = 16;
+
+    private final ObjectProperty<Optional<String>> currentError;
+
+    private final Property<Number> value;
+
+    private final LongFunction<String> validator;
+
+    private final Map<String, Optional<String>> errors = new LinkedHashMap<String, Optional<String>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Optional<String>> eldest) {
+            return size() > ERROR_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Der zuletzt übernommene Wert
+     */
+    private long committed;
+
+    private long initialValue;
+
+    private ObjectProperty<T> data;
+
+    /**
+     * @param value die Property der Unterklasse, die bereits den Startwert enthält
+     * @param initialValue der Startwert, umgewandelt mit {@link #toBits(Number)}
+     * @param validator liefert zu einem umgewandelten Wert {@code null} oder eine Fehlermeldung
+     */
+    protected PrimitiveRequirement(Property<Number> value, long initialValue, LongFunction<String> validator) {
+        this(new SimpleObjectProperty<>(Optional.empty()), value, initialValue, validator);
+    }
+
+    private PrimitiveRequirement(ObjectProperty<Optional<String>> currentError, Property<Number> value, long initialValue, LongFunction<String> validator) {
+        super(EasyBind.map(currentError, Function.identity()));
+        this.currentError = currentError;
+        this.value = value;
+        this.validator = validator;
+        this.initialValue = initialValue;
+        this.committed = initialValue;
+        publish(validator.apply(initialValue));
+
+        // Durch das Lesen meldet auch eine gebundene Property jede weitere Änderung
+        value.addListener(observable -> {
+            bits();
+            changed();
+        });
+    }
+
+    /**
+     * @return den aktuellen Wert der Property, ohne zu boxen
+     */
+    protected abstract long bits();
+
+    /**
+     * Setzt den Wert der Property, ohne zu boxen.
+     */
+    protected abstract void setBits(long bits);
+
+    protected abstract long toBits(T value);
+
+    protected abstract T fromBits(long bits);
+
+    /**
+     * @return die Property als geboxte, bidirektional gebundene Property
+     */
+    protected abstract ObjectProperty<T> createDataProperty();
+
+    /**
+     * @return den Wert als geboxte Property. Wird erst beim ersten Aufruf erzeugt.
+     */
+    @Override
+    public ObjectProperty<T> dataProperty() {
+        if (data == null) {
+            data = createDataProperty();
+        }
+        return data;
+    }
+
+    @Override
+    public T getInitialValue() {
+        return fromBits(initialValue);
+    }
+
+    /**
+     * @param initialValue der neue Startwert, darf nicht {@code null} sein
+     */
+    @Override
+    public void setInitialValue(T initialValue) {
+        this.initialValue = toBits(initialValue);
+        reset();
+    }
+
+    /**
+     * Setzt den Wert ohne Boxing zurück.
+     */
+    @Override
+    public void reset() {
+        if (!value.isBound()) {
+            setBits(initialValue);
+        }
+        flush();
+    }
+
+    @Override
+    public Optional<String> validate(T value) {
+        return value != null ? intern(validator.apply(toBits(value))) : Optional.empty();
+    }
+
+    @Override
+    public boolean isSelfContained() {
+        return !hasDependencies();
+    }
+
+    @Override
+    protected boolean commit() {
+        long newValue = bits();
+        boolean changed = newValue != committed;
+        committed = newValue;
+        publish(validator.apply(newValue));
+        return changed;
+    }
+
+    @Override
+    protected void revalidate() {
+        publish(validator.apply(committed));
+    }
+
+    /**
+     * Löst auch eine Bindung der primitiven Property.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+        value.unbind();
+    }
+
+    /**
+     * @param error eine Fehlermeldung oder {@code null}, wenn der Wert gültig ist
+     */
+    private void publish(String error) {
+        currentError.set(intern(error));
+    }
+
+    /**
+     * Kann auch von {@link #validate(Number)} aus anderen Threads aufgerufen werden.
+     *
+     * @param error eine Fehlermeldung oder {@code null}
+     * @return dasselbe {@link Optional} zur selben Fehlermeldung, solange sie zu den zuletzt benutzten gehört
+     */
+    private Optional<String> intern(String error) {
+        if (error == null) {
+            return Optional.empty();
+        }
+        synchronized (errors) {
+            return errors.computeIfAbsent(error, Optional::of);
+        }
+    }
+
+}
@@ -1,12 +1,35 @@
 package de.fluxparticle.wizardfx.requirement;
 
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.WeakInvalidationListener;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WeakChangeListener;
 import org.fxmisc.easybind.EasyBind;
+import org.fxmisc.easybind.Subscription;
 import org.fxmisc.easybind.monadic.MonadicBinding;
 import org.fxmisc.easybind.monadic.MonadicObservableValue;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 /**
@@ -14,10 +37,73 @@ import java.util.function.Function;
  */
 public class Requirement<T> {
 
-    private final ObjectProperty<T> data = new SimpleObjectProperty<>();
+    private static final ReadOnlyBooleanProperty NEVER_PENDING = new ReadOnlyBooleanWrapper(false).getReadOnlyProperty();
+
+    private final StringProperty name = new SimpleStringProperty();
+
+    private final ObjectProperty<T> data;
+
+    private T initialValue;
+
+    /**
+     * Der Wert, der zuletzt an die Überprüfung weitergegeben wurde. Wann das passiert, legt die {@link ValidationPolicy} fest.
+     */
+    private final ObjectProperty<T> input;
+
+    private final ObjectProperty<ValidationPolicy> validationPolicy = new SimpleObjectProperty<>();
+
+    private final ObjectProperty<ValidationPolicy> defaultValidationPolicy = new SimpleObjectProperty<>();
+
+    private BiFunction<? super T, Map<String, Object>, Optional<String>> recordValidator;
 
     private final MonadicBinding<Optional<String>> error;
 
+    private ValidationPolicy.Deferral deferral;
+
+    private boolean dirty;
+
+    /**
+     * Solange {@code true}, werden Änderungen nur vorgemerkt und nicht an die {@link ValidationPolicy} gemeldet
+     */
+    private boolean loading;
+
+    private BooleanBinding valid;
+
+    /**
+     * Requirements, die erneut überprüft werden müssen, wenn sich der Wert dieses Requirements ändert
+     */
+    private final List<Requirement<?>> dependents = new ArrayList<>();
+
+    private final List<Requirement<?>> dependencies = new ArrayList<>();
+
+    /**
+     * {@code true}, sobald dieses Requirement mit {@link #dependsOn(Observable...)} von Observables außerhalb
+     * der Requirements abhängt
+     */
+    private boolean observesExternal;
+
+    /**
+     * Alle direkt und indirekt abhängigen Requirements in topologischer Reihenfolge. {@code null}, wenn sich der Graph
+     * seit der letzten Berechnung geändert hat.
+     */
+    private List<Requirement<?>> propagationOrder;
+
+    private final ReadOnlyIntegerWrapper fanOut = new ReadOnlyIntegerWrapper(0);
+
+    /**
+     * Ist {@code null}, solange nicht gemessen wird. Dann kostet die Messung nur diese eine Abfrage.
+     */
+    private ValidationMonitor validationMonitor;
+
+    private Function<? super T, Optional<String>> finalValidator;
+
+    /**
+     * Listener, die nur schwach an fremden Observables hängen, und deren Abmeldungen
+     */
+    private final List<Object> listeners = new ArrayList<>();
+
+    private Subscription subscriptions = Subscription.EMPTY;
+
     /**
      * Es wird ein MonadicObservableValue eingesetzt, {@code data} am Anfang den Wert null enthält und ein monadisches
      * Binding nur ausgelöst wird, wenn der Wert nicht null ist.
@@ -25,15 +111,497 @@ public class Requirement<T> {
      * @param validator eine Funktion, die einen monadischen ObservableValue in eine optionale Fehlermeldung konvertiert
      */
     public Requirement(Function<MonadicObservableValue<T>, MonadicBinding<Optional<String>>> validator) {
-        error = validator.apply(EasyBind.monadic(data));
+        this.data = new SimpleObjectProperty<>();
+        this.input = new SimpleObjectProperty<>();
+        this.error = validator.apply(EasyBind.monadic(input));
+
+        data.addListener((observable, oldValue, newValue) -> changed());
+        initValidationPolicy();
+    }
+
+    /**
+     * Für Unterklassen, die ihren Wert selbst verwalten. Sie melden jede Änderung mit {@link #changed()} und
+     * übernehmen den Wert in {@link #commit()}. Außerdem müssen sie {@link #dataProperty()},
+     * {@link #validate(Object)} und {@link #revalidate()} überschreiben.
+     *
+     * @param error die Fehlermeldung zum zuletzt übernommenen Wert
+     */
+    protected Requirement(MonadicBinding<Optional<String>> error) {
+        this.data = null;
+        this.input = null;
+        this.error = error;
+
+        initValidationPolicy();
+    }
+
+    private void initValidationPolicy() {
+        deferral = effectiveValidationPolicy().defer(this::release);
+
+        // Beim Wechsel der Strategie wird eine ausstehende Überprüfung sofort nachgeholt
+        InvalidationListener policyListener = observable -> {
+            flush();
+            deferral = effectiveValidationPolicy().defer(this::release);
+        };
+        validationPolicy.addListener(policyListener);
+        defaultValidationPolicy.addListener(policyListener);
+    }
+
+    public String getName() {
+        return name.get();
+    }
+
+    /**
+     * @return Name dieses Requirements, unter dem z.B. {@link de.fluxparticle.wizardfx.WizardValidator} den Wert
+     * in einem Datensatz findet
+     */
+    public StringProperty nameProperty() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name.set(name);
     }
 
     public ObjectProperty<T> dataProperty() {
         return data;
     }
 
+    public T getInitialValue() {
+        return initialValue;
+    }
+
+    /**
+     * Legt den Startwert fest, übernimmt ihn sofort in {@code data} und merkt ihn sich für {@link #reset()}.
+     */
+    public void setInitialValue(T initialValue) {
+        this.initialValue = initialValue;
+        reset();
+    }
+
+    /**
+     * Setzt {@code data} auf den Startwert zurück und überprüft ihn sofort, egal welche {@link ValidationPolicy} gilt.
+     * Ist {@code data} gebunden, bleibt der Wert unverändert.
+     */
+    public void reset() {
+        ObjectProperty<T> property = dataProperty();
+        if (!property.isBound()) {
+            property.set(initialValue);
+        }
+        flush();
+    }
+
+    /**
+     * Übernimmt einen gespeicherten Wert in {@code data}, ohne ihn zu überprüfen. Die Überprüfung wird erst mit
+     * {@link #flush()} oder {@link #flushAll(Collection)} nachgeholt. Ist {@code data} gebunden, bleibt der Wert
+     * unverändert.
+     */
+    public void load(T value) {
+        ObjectProperty<T> property = dataProperty();
+        if (property.isBound()) {
+            return;
+        }
+        loading = true;
+        try {
+            property.set(value);
+        } finally {
+            loading = false;
+        }
+    }
+
+    /**
+     * Überprüft die noch ausstehenden Werte mehrerer Requirements auf einmal, z.B. nachdem sie mit {@link #load(Object)}
+     * gesetzt wurden. Alle davon abhängigen Requirements werden danach in einem einzigen Durchlauf überprüft,
+     * jedes genau einmal, auch wenn es von mehreren der Requirements abhängt.
+     */
+    public static void flushAll(Collection<? extends Requirement<?>> requirements) {
+        Set<Requirement<?>> visited = new LinkedHashSet<>();
+        for (Requirement<?> requirement : requirements) {
+            if (requirement.dirty) {
+                requirement.deferral.cancel();
+                requirement.dirty = false;
+                if (requirement.measuredCommit()) {
+                    requirement.dependents.forEach(dependent -> dependent.visit(visited));
+                }
+            }
+        }
+        List<Requirement<?>> order = new ArrayList<>(visited);
+        Collections.reverse(order);
+        order.forEach(Requirement::measuredRevalidate);
+    }
+
+    /**
+     * Überprüft einen Wert, ohne {@code data} zu verändern und ohne Listener anzumelden. Unterklassen, deren Validator
+     * eine einfache Funktion ist, überschreiben diese Methode. Ein Validator, der ein Binding erzeugt, kann so nicht
+     * überprüft werden.
+     *
+     * @param value der zu überprüfende Wert
+     * @return eine optionale Fehlermeldung. Ein fehlender Wert wird, wie bei {@code data}, nicht überprüft.
+     * @throws UnsupportedOperationException wenn der Validator nur als Binding vorliegt
+     */
+    public Optional<String> validate(T value) {
+        throw new UnsupportedOperationException("validator is a binding and cannot be applied to a single value");
+    }
+
+    /**
+     * @return {@code true}, wenn {@link #validate(Object)} nur vom übergebenen Wert abhängt und daher aus beliebigen
+     * Threads aufgerufen werden kann. Das ist nicht der Fall, wenn dieses Requirement mit {@code dependsOn} von anderen
+     * Requirements oder Observables abhängt.
+     */
+    public boolean isSelfContained() {
+        return false;
+    }
+
+    /**
+     * @return {@code true}, wenn {@code dependsOn} für dieses Requirement aufgerufen wurde
+     */
+    protected final boolean hasDependencies() {
+        return observesExternal || !dependencies.isEmpty();
+    }
+
+    public BiFunction<? super T, Map<String, Object>, Optional<String>> getRecordValidator() {
+        return recordValidator;
+    }
+
+    /**
+     * @param recordValidator überprüft einen Wert eines ganzen Datensatzes, z.B. für
+     *                        {@link de.fluxparticle.wizardfx.WizardValidator}, und bekommt dazu die übrigen Werte des
+     *                        Datensatzes nach Namen der Requirements. Ersetzt dort {@link #validate(Object)} und wird
+     *                        für Requirements gebraucht, die nicht {@link #isSelfContained() in sich geschlossen} sind.
+     *                        Kann in einem anderen Thread laufen und darf daher keine Properties lesen.
+     */
+    public void setRecordValidator(BiFunction<? super T, Map<String, Object>, Optional<String>> recordValidator) {
+        this.recordValidator = recordValidator;
+    }
+
+    /**
+     * Überprüft einen Wert abschließend mit dem {@link #setFinalValidator final validator}, z.B. beim Abschließen des
+     * Wizards. Die gewöhnliche Überprüfung wird dabei nicht wiederholt, ihr Ergebnis liefert {@link #errorProperty()}.
+     * Da nur der final validator aufgerufen wird, darf diese Methode auch in einem anderen Thread aufgerufen werden.
+     *
+     * @param value der zu überprüfende Wert
+     * @return eine optionale Fehlermeldung, leer bei {@code null} oder ohne final validator
+     */
+    public Optional<String> validateFinal(T value) {
+        if (value == null || finalValidator == null) {
+            return Optional.empty();
+        }
+        Optional<String> f = finalValidator.apply(value);
+        return f != null ? f : Optional.empty();
+    }
+
+    public Function<? super T, Optional<String>> getFinalValidator() {
+        return finalValidator;
+    }
+
+    /**
+     * @param finalValidator eine Überprüfung, die zu teuer ist, um sie bei jeder Änderung auszuführen, und daher nur
+     *                       von {@link #validateFinal(Object)} aufgerufen wird. Kann in einem anderen Thread laufen und
+     *                       sollte daher nur vom übergebenen Wert abhängen.
+     */
+    public void setFinalValidator(Function<? super T, Optional<String>> finalValidator) {
+        this.finalValidator = finalValidator;
+    }
+
+    /**
+     * @return die Strategie für dieses Requirement. Bei {@code null} gilt {@link #defaultValidationPolicyProperty()}.
+     */
+    public ObjectProperty<ValidationPolicy> validationPolicyProperty() {
+        return validationPolicy;
+    }
+
+    public ValidationPolicy getValidationPolicy() {
+        return validationPolicy.get();
+    }
+
+    public void setValidationPolicy(ValidationPolicy validationPolicy) {
+        this.validationPolicy.set(validationPolicy);
+    }
+
+    /**
+     * @return die Strategie, die gilt, wenn für dieses Requirement keine eigene gesetzt ist.
+     * Wird von {@link de.fluxparticle.wizardfx.WizardStep} an die Strategie des Schrittes gebunden.
+     * Ist auch diese {@code null}, gilt {@link ValidationPolicy#IMMEDIATE}.
+     */
+    public ObjectProperty<ValidationPolicy> defaultValidationPolicyProperty() {
+        return defaultValidationPolicy;
+    }
+
+    /**
+     * Überprüft einen noch ausstehenden Wert sofort.
+     */
+    public void flush() {
+        if (dirty) {
+            deferral.cancel();
+            release();
+        }
+    }
+
+    /**
+     * Dieses Requirement wird erneut überprüft, wenn sich der Wert eines der anderen Requirements ändert.
+     * Der Validator sollte deren Werte dann nur lesen, statt sich selbst an sie zu binden. Nach jeder Änderung werden
+     * alle direkt und indirekt abhängigen Requirements in einem einzigen Durchlauf in topologischer Reihenfolge
+     * überprüft, jedes genau einmal und immer erst nach allen Requirements, von denen es abhängt.
+     *
+     * @param requirements Requirements, von denen dieses abhängt
+     * @throws IllegalArgumentException wenn dadurch ein Zyklus entstehen würde
+     */
+    public void dependsOn(Requirement<?>... requirements) {
+        for (Requirement<?> requirement : requirements) {
+            if (requirement == this || collectDependents().contains(requirement)) {
+                throw new IllegalArgumentException("cyclic dependency");
+            }
+        }
+        for (Requirement<?> requirement : requirements) {
+            requirement.dependents.add(this);
+            dependencies.add(requirement);
+            requirement.invalidatePropagationOrder();
+        }
+    }
+
+    /**
+     * Dieses Requirement und alle davon abhängigen werden erneut überprüft, wenn sich eines der Observables ändert.
+     * Da die Observables oft länger leben als dieses Requirement, wird nur ein {@link WeakChangeListener} bzw.
+     * {@link WeakInvalidationListener} angemeldet. Das Requirement hält den eigentlichen Listener selbst.
+     *
+     * @param observables Observables außerhalb der Requirements, von denen dieses abhängt
+     */
+    public void dependsOn(Observable... observables) {
+        observesExternal |= observables.length > 0;
+        for (Observable observable : observables) {
+            if (observable instanceof ObservableValue) {
+                // Ein ChangeListener sorgt dafür, dass auch Bindings, die keiner liest, jede Änderung melden
+                ObservableValue<?> observableValue = (ObservableValue<?>) observable;
+                ChangeListener<Object> listener = (o, oldValue, newValue) -> revalidateWithDependents();
+                ChangeListener<Object> weakListener = new WeakChangeListener<>(listener);
+                observableValue.addListener(weakListener);
+                subscribe(listener, () -> observableValue.removeListener(weakListener));
+            } else {
+                InvalidationListener listener = o -> revalidateWithDependents();
+                InvalidationListener weakListener = new WeakInvalidationListener(listener);
+                observable.addListener(weakListener);
+                subscribe(listener, () -> observable.removeListener(weakListener));
+            }
+        }
+    }
+
+    /**
+     * @return wie viele abhängige Requirements nach der letzten Änderung dieses Requirements erneut überprüft wurden
+     */
+    public ReadOnlyIntegerProperty fanOutProperty() {
+        return fanOut.getReadOnlyProperty();
+    }
+
+    public int getFanOut() {
+        return fanOut.get();
+    }
+
+    public ValidationMonitor getValidationMonitor() {
+        return validationMonitor;
+    }
+
+    /**
+     * @param validationMonitor bekommt die Dauer jeder Überprüfung dieses Requirements gemeldet oder {@code null}
+     */
+    public void setValidationMonitor(ValidationMonitor validationMonitor) {
+        this.validationMonitor = validationMonitor;
+    }
+
+    /**
+     * Überprüft den aktuellen Wert erneut, z.B. weil sich etwas geändert hat, von dem dieses Requirement abhängt.
+     */
+    protected void revalidate() {
+        error.invalidate();
+    }
+
     public MonadicBinding<Optional<String>> errorProperty() {
         return error;
     }
 
+    /**
+     * @return {@code true}, solange eine Überprüfung noch läuft und {@link #errorProperty()} damit noch nicht zum
+     * aktuellen Wert passt. Synchrone Requirements sind nie pending.
+     */
+    public ReadOnlyBooleanProperty pendingProperty() {
+        return NEVER_PENDING;
+    }
+
+    public boolean isPending() {
+        return pendingProperty().get();
+    }
+
+    /**
+     * Ein Requirement ist gültig, wenn keine Fehlermeldung vorliegt und keine Überprüfung mehr aussteht.
+     * Solange {@code data} noch null ist, liegt auch keine Fehlermeldung vor.
+     */
+    public BooleanBinding validProperty() {
+        if (valid == null) {
+            valid = Bindings.createBooleanBinding(() -> {
+                Optional<String> e = error.getValue();
+                return !pendingProperty().get() && (e == null || !e.isPresent());
+            }, error, pendingProperty());
+        }
+        return valid;
+    }
+
+    public boolean isValid() {
+        return validProperty().get();
+    }
+
+    /**
+     * Löst alle Bindungen und Listener dieses Requirements, auch die Abhängigkeiten zu anderen Requirements.
+     * Danach wird nicht mehr überprüft.
+     */
+    public void dispose() {
+        deferral.cancel();
+        dirty = false;
+
+        subscriptions.unsubscribe();
+        subscriptions = Subscription.EMPTY;
+        listeners.clear();
+
+        for (Requirement<?> dependency : dependencies) {
+            dependency.dependents.remove(this);
+            dependency.invalidatePropagationOrder();
+        }
+        for (Requirement<?> dependent : dependents) {
+            dependent.dependencies.remove(this);
+        }
+        dependencies.clear();
+        dependents.clear();
+        propagationOrder = null;
+        observesExternal = false;
+
+        if (data != null) {
+            data.unbind();
+        }
+        validationPolicy.unbind();
+        defaultValidationPolicy.unbind();
+        validationMonitor = null;
+
+        if (valid != null) {
+            valid.dispose();
+        }
+        error.dispose();
+    }
+
+    /**
+     * @param listener wird von diesem Requirement gehalten, solange es nicht {@link #dispose() entsorgt} ist
+     * @param subscription meldet den Listener bei {@link #dispose()} wieder ab
+     */
+    private void subscribe(Object listener, Subscription subscription) {
+        listeners.add(listener);
+        subscriptions = subscriptions.and(subscription);
+    }
+
+    private ValidationPolicy effectiveValidationPolicy() {
+        if (validationPolicy.get() != null) {
+            return validationPolicy.get();
+        }
+        if (defaultValidationPolicy.get() != null) {
+            return defaultValidationPolicy.get();
+        }
+        return ValidationPolicy.IMMEDIATE;
+    }
+
+    /**
+     * Der Wert hat sich geändert und wird gemäß der {@link ValidationPolicy} irgendwann übernommen.
+     */
+    protected final void changed() {
+        dirty = true;
+        if (!loading) {
+            deferral.trigger();
+        }
+    }
+
+    /**
+     * Übernimmt den aktuellen Wert in die Überprüfung.
+     *
+     * @return {@code true}, wenn sich der übernommene Wert dadurch geändert hat
+     */
+    protected boolean commit() {
+        T oldValue = input.get();
+        T newValue = data.get();
+        input.set(newValue);
+        return oldValue != newValue;
+    }
+
+    private void release() {
+        dirty = false;
+        if (measuredCommit()) {
+            propagate();
+        }
+    }
+
+    private void revalidateWithDependents() {
+        measuredRevalidate();
+        propagate();
+    }
+
+    private boolean measuredCommit() {
+        ValidationMonitor monitor = validationMonitor;
+        if (monitor == null) {
+            return commit();
+        }
+        long start = System.nanoTime();
+        boolean changed = commit();
+        monitor.validated(this, System.nanoTime() - start);
+        return changed;
+    }
+
+    private void measuredRevalidate() {
+        ValidationMonitor monitor = validationMonitor;
+        if (monitor == null) {
+            revalidate();
+            return;
+        }
+        long start = System.nanoTime();
+        revalidate();
+        monitor.validated(this, System.nanoTime() - start);
+    }
+
+    private void propagate() {
+        if (dependents.isEmpty()) {
+            return;
+        }
+        List<Requirement<?>> order = getPropagationOrder();
+        order.forEach(Requirement::measuredRevalidate);
+        fanOut.set(order.size());
+    }
+
+    private List<Requirement<?>> getPropagationOrder() {
+        if (propagationOrder == null) {
+            propagationOrder = new ArrayList<>(collectDependents());
+            Collections.reverse(propagationOrder);
+        }
+        return propagationOrder;
+    }
+
+    /**
+     * @return alle direkt und indirekt abhängigen Requirements in umgekehrter topologischer Reihenfolge
+     */
+    private Set<Requirement<?>> collectDependents() {
+        Set<Requirement<?>> visited = new LinkedHashSet<>();
+        dependents.forEach(dependent -> dependent.visit(visited));
+        return visited;
+    }
+
+    private void visit(Set<Requirement<?>> visited) {
+        if (visited.contains(this)) {
+            return;
+        }
+        // Post-Order: Ein Requirement wird erst nach allen, die von ihm abhängen, eingefügt
+        for (Requirement<?> dependent : dependents) {
+            dependent.visit(visited);
+        }
+        visited.add(this);
+    }
+
+    /**
+     * Dieses und alle Requirements, von denen es direkt oder indirekt abhängt, müssen ihre Reihenfolge neu berechnen.
+     */
+    private void invalidatePropagationOrder() {
+        propagationOrder = null;
+        dependencies.forEach(Requirement::invalidatePropagationOrder);
+    }
+
 }
@@ -8,11 +8,65 @@ import java.util.function.Function;
  */
 public class SimpleRequirement<T> extends Requirement<T> {
 
+    private final Function<T, Optional<String>> validator;
+
+    private final Memoizer<T, Optional<String>> memoizer;
+
     /**
      * @param validator eine einfache Funktion, die einen Wert vom Typ T in eine optionale Fehlermeldung konvertiert
      */
     public SimpleRequirement(Function<T, Optional<String>> validator) {
         super(monadicObservableValue -> monadicObservableValue.map(validator));
+        this.validator = validator;
+        this.memoizer = null;
+    }
+
+    /**
+     * Die Fehlermeldungen der zuletzt überprüften Werte werden zwischengespeichert.
+     *
+     * Hängt die Überprüfung per {@code dependsOn} von anderen Werten ab, wird der Zwischenspeicher bei jeder
+     * Änderung dieser Werte geleert.
+     *
+     * @param validator eine einfache Funktion, die einen Wert vom Typ T in eine optionale Fehlermeldung konvertiert
+     * @param cacheSize maximale Anzahl an zwischengespeicherten Fehlermeldungen
+     */
+    public SimpleRequirement(Function<T, Optional<String>> validator, int cacheSize) {
+        this(new Memoizer<>(validator, cacheSize));
+    }
+
+    private SimpleRequirement(Memoizer<T, Optional<String>> memoizer) {
+        super(monadicObservableValue -> monadicObservableValue.map(memoizer));
+        this.validator = memoizer;
+        this.memoizer = memoizer;
+    }
+
+    /**
+     * @return der Zwischenspeicher für die Fehlermeldungen oder {@code null}, wenn nichts zwischengespeichert wird
+     */
+    public Memoizer<T, Optional<String>> getMemoizer() {
+        return memoizer;
+    }
+
+    @Override
+    public Optional<String> validate(T value) {
+        return value != null ? validator.apply(value) : Optional.empty();
+    }
+
+    /**
+     * Die zwischengespeicherten Fehlermeldungen passen nicht mehr, wenn sich etwas geändert hat, wovon dieses
+     * Requirement abhängt.
+     */
+    @Override
+    protected void revalidate() {
+        if (memoizer != null) {
+            memoizer.clear();
+        }
+        super.revalidate();
+    }
+
+    @Override
+    public boolean isSelfContained() {
+        return !hasDependencies();
     }
 
 }
@@ -1,5 +1,9 @@
 package de.fluxparticle.wizardfx.requirement;
 
+import org.fxmisc.easybind.monadic.MonadicBinding;
+import org.fxmisc.easybind.monadic.MonadicObservableValue;
+
+import java.util.Optional;
 import java.util.function.Function;
 
 /**
@@ -14,15 +18,88 @@ import java.util.function.Function;
  */
 public class TransformRequirement<T, U> extends Requirement<T> {
 
+    private final Function<T, U> transform;
+
+    private final Requirement<U> requirement;
+
+    private final Memoizer<T, U> memoizer;
+
     /**
      * @param transform eine Funktion, die einen Wert vom Typ T in einen Wert vom Typ U konvertiert
      * @param requirement ein {@link Requirement}, das den transformierten Wert als Eingabe erwartet und überprüft
      */
     public TransformRequirement(Function<T, U> transform, Requirement<U> requirement) {
-        super(data -> {
+        super(validator(transform, requirement));
+        this.transform = transform;
+        this.requirement = requirement;
+        this.memoizer = null;
+    }
+
+    /**
+     * Die transformierten Werte werden zwischengespeichert. Das innere {@link Requirement} überprüft trotzdem bei jeder
+     * Änderung, da es auch von anderen Observables abhängen kann.
+     *
+     * @param transform eine Funktion, die einen Wert vom Typ T in einen Wert vom Typ U konvertiert
+     *                  und dabei nur von diesem Wert abhängt
+     * @param requirement ein {@link Requirement}, das den transformierten Wert als Eingabe erwartet und überprüft
+     * @param cacheSize maximale Anzahl an zwischengespeicherten transformierten Werten
+     */
+    public TransformRequirement(Function<T, U> transform, Requirement<U> requirement, int cacheSize) {
+        this(new Memoizer<>(transform, cacheSize), requirement);
+    }
+
+    private TransformRequirement(Memoizer<T, U> memoizer, Requirement<U> requirement) {
+        super(validator(memoizer, requirement));
+        this.transform = memoizer;
+        this.requirement = requirement;
+        this.memoizer = memoizer;
+    }
+
+    /**
+     * @return der Zwischenspeicher für die transformierten Werte oder {@code null}, wenn nichts zwischengespeichert wird
+     */
+    public Memoizer<T, U> getMemoizer() {
+        return memoizer;
+    }
+
+    /**
+     * Der Wert wird transformiert und vom inneren {@link Requirement} überprüft, ohne dessen {@code data} zu verändern.
+     */
+    @Override
+    public Optional<String> validate(T value) {
+        return value != null ? requirement.validate(transform.apply(value)) : Optional.empty();
+    }
+
+    /**
+     * Der transformierte Wert hängt nur vom Wert ab, daher wird nur das innere {@link Requirement} erneut überprüft.
+     */
+    @Override
+    protected void revalidate() {
+        requirement.revalidate();
+    }
+
+    /**
+     * @return {@code true}, wenn auch das innere {@link Requirement} in sich geschlossen ist
+     */
+    @Override
+    public boolean isSelfContained() {
+        return !hasDependencies() && requirement.isSelfContained();
+    }
+
+    /**
+     * Entsorgt auch das innere {@link Requirement}, das zu diesem gehört.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+        requirement.dispose();
+    }
+
+    private static <T, U> Function<MonadicObservableValue<T>, MonadicBinding<Optional<String>>> validator(Function<T, U> transform, Requirement<U> requirement) {
+        return data -> {
             requirement.dataProperty().bind( data.map(transform) );
             return requirement.errorProperty();
-        });
+        };
     }
 
 }
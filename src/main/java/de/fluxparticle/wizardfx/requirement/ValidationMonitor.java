@@ -0,0 +1,18 @@
+package de.fluxparticle.wizardfx.requirement;
+
+/**
+ * Wird nach jeder Überprüfung eines {@link Requirement}s im JavaFX Application Thread aufgerufen. Gemessen wird die
+ * Zeit vom Übernehmen des Wertes bzw. dem Anstoß der erneuten Überprüfung, bis alle Listener auf
+ * {@link Requirement#errorProperty()} benachrichtigt wurden. Bei einem {@link AsyncRequirement} ist das nur der Start
+ * der Überprüfung.
+ */
+@FunctionalInterface
+public interface ValidationMonitor {
+
+    /**
+     * @param requirement das überprüfte Requirement
+     * @param nanos Dauer der Überprüfung in Nanosekunden
+     */
+    void validated(Requirement<?> requirement, long nanos);
+
+}
@@ -0,0 +1,122 @@
+package de.fluxparticle.wizardfx.requirement;
+
+import javafx.animation.AnimationTimer;
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
+
+/**
+ * Legt fest, wann ein {@link Requirement} nach einer Änderung seines Wertes erneut überprüft wird.
+ * Egal welche Strategie gewählt wird, der letzte Wert wird immer irgendwann überprüft.
+ */
+public abstract class ValidationPolicy {
+
+    /**
+     * Jede Änderung wird sofort überprüft.
+     */
+    public static final ValidationPolicy IMMEDIATE = new ValidationPolicy() {
+        @Override
+        Deferral defer(Runnable release) {
+            return new Deferral() {
+                @Override
+                public void trigger() {
+                    release.run();
+                }
+
+                @Override
+                public void cancel() {
+                }
+            };
+        }
+    };
+
+    /**
+     * Alle Änderungen innerhalb eines JavaFX-Pulses werden zu einer einzigen Überprüfung zusammengefasst.
+     */
+    public static final ValidationPolicy PULSE = new ValidationPolicy() {
+        @Override
+        Deferral defer(Runnable release) {
+            return new Deferral() {
+
+                private AnimationTimer timer;
+
+                @Override
+                public void trigger() {
+                    if (timer == null) {
+                        timer = new AnimationTimer() {
+                            @Override
+                            public void handle(long now) {
+                                cancel();
+                                release.run();
+                            }
+                        };
+                        timer.start();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    if (timer != null) {
+                        timer.stop();
+                        timer = null;
+                    }
+                }
+            };
+        }
+    };
+
+    /**
+     * @param millis so lange muss der Wert unverändert bleiben, bevor er überprüft wird
+     * @return eine Strategie, die erst überprüft, wenn sich der Wert eine Weile nicht mehr geändert hat
+     */
+    public static ValidationPolicy debounce(long millis) {
+        return new ValidationPolicy() {
+            @Override
+            Deferral defer(Runnable release) {
+                return new Deferral() {
+
+                    private PauseTransition pause;
+
+                    @Override
+                    public void trigger() {
+                        if (pause == null) {
+                            pause = new PauseTransition(Duration.millis(millis));
+                            pause.setOnFinished(event -> release.run());
+                        }
+                        pause.playFromStart();
+                    }
+
+                    @Override
+                    public void cancel() {
+                        if (pause != null) {
+                            pause.stop();
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+    ValidationPolicy() {
+    }
+
+    /**
+     * @param release überträgt den aktuellen Wert in die Überprüfung
+     * @return ein neuer Aufschub für genau ein {@link Requirement}
+     */
+    abstract Deferral defer(Runnable release);
+
+    interface Deferral {
+
+        /**
+         * Der Wert hat sich geändert und muss irgendwann überprüft werden.
+         */
+        void trigger();
+
+        /**
+         * Eine noch ausstehende Überprüfung wird nicht mehr automatisch ausgelöst.
+         */
+        void cancel();
+
+    }
+
+}
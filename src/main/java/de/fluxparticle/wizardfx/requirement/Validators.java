@@ -0,0 +1,102 @@
+package de.fluxparticle.wizardfx.requirement;
+
+import javafx.beans.value.ObservableValue;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Kombinatoren für Validatoren, wie sie z.B. ein {@link SimpleRequirement} erwartet. Die Teile werden in der
+ * angegebenen Reihenfolge ausgewertet und die Auswertung endet, sobald das Ergebnis feststeht. Günstige Prüfungen,
+ * wie die auf einen leeren Wert, sollten daher vor teuren Prüfungen, wie regulären Ausdrücken oder dem Parsen, stehen.
+ *
+ * Jede Fehlermeldung wird nur einmal in ein {@link Optional} verpackt, sodass beim Überprüfen nichts erzeugt wird.
+ */
+public final class Validators {
+
+    private Validators() {
+    }
+
+    /**
+     * @return die erste Fehlermeldung der Validatoren. Alle weiteren Validatoren werden dann nicht mehr aufgerufen.
+     */
+    @SafeVarargs
+    public static <T> Function<T, Optional<String>> firstError(Function<? super T, Optional<String>>... validators) {
+        return value -> {
+            for (Function<? super T, Optional<String>> validator : validators) {
+                Optional<String> error = validator.apply(value);
+                if (error.isPresent()) {
+                    return error;
+                }
+            }
+            return Optional.empty();
+        };
+    }
+
+    /**
+     * @return die Fehlermeldung, sobald eine der Bedingungen nicht erfüllt ist. Die restlichen werden dann nicht
+     * mehr geprüft.
+     */
+    @SafeVarargs
+    public static <T> Function<T, Optional<String>> allOf(String message, Predicate<? super T>... conditions) {
+        Optional<String> error = Optional.of(message);
+        return value -> {
+            for (Predicate<? super T> condition : conditions) {
+                if (!condition.test(value)) {
+                    return error;
+                }
+            }
+            return Optional.empty();
+        };
+    }
+
+    /**
+     * @return die Fehlermeldung, wenn keine der Bedingungen erfüllt ist. Sobald eine erfüllt ist, werden die restlichen
+     * nicht mehr geprüft.
+     */
+    @SafeVarargs
+    public static <T> Function<T, Optional<String>> anyOf(String message, Predicate<? super T>... conditions) {
+        Optional<String> error = Optional.of(message);
+        return value -> {
+            for (Predicate<? super T> condition : conditions) {
+                if (condition.test(value)) {
+                    return Optional.empty();
+                }
+            }
+            return error;
+        };
+    }
+
+    /**
+     * Der Validator wird nur aufgerufen, wenn die Bedingung für den Wert erfüllt ist, z.B. nur für nicht leere Werte.
+     */
+    public static <T> Function<T, Optional<String>> when(Predicate<? super T> condition, Function<? super T, Optional<String>> validator) {
+        return value -> condition.test(value) ? validator.apply(value) : Optional.empty();
+    }
+
+    /**
+     * Der Validator wird nur aufgerufen, wenn die Bedingung erfüllt ist, z.B. nur für ein aktiviertes Feld.
+     * Damit beim Wechsel der Bedingung erneut überprüft wird, sollte das Requirement mit
+     * {@link Requirement#dependsOn(javafx.beans.Observable...)} von ihr abhängen.
+     */
+    public static <T> Function<T, Optional<String>> when(ObservableValue<Boolean> condition, Function<? super T, Optional<String>> validator) {
+        return value -> Boolean.TRUE.equals(condition.getValue()) ? validator.apply(value) : Optional.empty();
+    }
+
+    /**
+     * @return die Fehlermeldung, wenn der Wert leer ist
+     */
+    public static Function<String, Optional<String>> notEmpty(String message) {
+        return allOf(message, value -> !value.isEmpty());
+    }
+
+    /**
+     * @return die Fehlermeldung, wenn der Wert nicht dem Pattern genügt
+     */
+    public static Function<String, Optional<String>> matches(Pattern pattern, String message) {
+        return allOf(message, value -> pattern.matcher(value).matches());
+    }
+
+}
@@ -0,0 +1,64 @@
+package de.fluxparticle.wizardfx;
+
+import javafx.scene.Group;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ContentCacheTest {
+
+    @Test
+    public void unloadsLeastRecentlyShownStep() {
+        ContentCache cache = new ContentCache(2);
+        WizardStep a = lazyStep("a");
+        WizardStep b = lazyStep("b");
+        WizardStep c = lazyStep("c");
+
+        cache.load(a);
+        cache.load(b);
+        cache.load(a);
+        cache.load(c);
+
+        assertNotNull(a.getContent());
+        assertNull(b.getContent());
+        assertNotNull(c.getContent());
+    }
+
+    @Test
+    public void eagerStepsDoNotTakeSlots() {
+        ContentCache cache = new ContentCache(2);
+        Group content = new Group();
+        WizardStep eager = new WizardStep("eager", content);
+        WizardStep a = lazyStep("a");
+        WizardStep b = lazyStep("b");
+
+        cache.load(a);
+        cache.load(eager);
+        cache.load(b);
+
+        assertSame(content, eager.getContent());
+        assertNotNull(a.getContent());
+        assertNotNull(b.getContent());
+    }
+
+    @Test
+    public void shrinkingCapacityUnloadsImmediately() {
+        ContentCache cache = new ContentCache(3);
+        WizardStep a = lazyStep("a");
+        WizardStep b = lazyStep("b");
+        cache.load(a);
+        cache.load(b);
+
+        cache.setCapacity(1);
+
+        assertNull(a.getContent());
+        assertNotNull(b.getContent());
+    }
+
+    private static WizardStep lazyStep(String text) {
+        return new WizardStep(text, Group::new);
+    }
+
+}
@@ -0,0 +1,150 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.Requirement;
+import de.fluxparticle.wizardfx.requirement.SimpleRequirement;
+import javafx.collections.ObservableList;
+import javafx.scene.Group;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ErrorSummaryTest {
+
+    @Test
+    public void errorsFollowRequirementOrder() {
+        SimpleRequirement<String> a = requirement("a");
+        SimpleRequirement<String> b = requirement("b");
+        SimpleRequirement<String> c = requirement("c");
+        WizardStep step = step(a, b, c);
+        assertNull(step.getFirstError());
+
+        c.dataProperty().set("");
+        a.dataProperty().set("");
+        assertEquals("a c", messages(step));
+
+        b.dataProperty().set("");
+        a.dataProperty().set("x");
+        assertEquals("b c", messages(step));
+        assertSame(b, step.getFirstError().getRequirement());
+    }
+
+    @Test
+    public void duplicateRequirementKeepsEntryUntilLastCopyIsRemoved() {
+        SimpleRequirement<String> a = requirement("a");
+        SimpleRequirement<String> b = requirement("b");
+        WizardStep step = step(a, b, a);
+        a.dataProperty().set("");
+        b.dataProperty().set("");
+        assertEquals("a b", messages(step));
+
+        // Das erste Vorkommen von a liegt jetzt hinter b
+        step.getRequirements().remove(0);
+        assertEquals("b a", messages(step));
+
+        // Auch danach folgt der Eintrag noch der Fehlermeldung
+        a.dataProperty().set("x");
+        assertEquals("b", messages(step));
+        a.dataProperty().set("");
+        assertEquals("b a", messages(step));
+
+        step.getRequirements().add(0, a);
+        assertEquals("a b", messages(step));
+
+        step.getRequirements().removeAll(Collections.singleton(a));
+        assertEquals("b", messages(step));
+    }
+
+    @Test
+    public void randomChangesMatchFullScan() {
+        Random random = new Random(42);
+        List<SimpleRequirement<String>> pool = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            pool.add(requirement("r" + i));
+        }
+        WizardStep step = step();
+        SimpleRequirement<String> before = requirement("before");
+        before.dataProperty().set("");
+        WizardModel model = new WizardModel(step(before), step);
+        ObservableList<Requirement<?>> requirements = step.getRequirements();
+
+        for (int i = 0; i < 5000; i++) {
+            switch (random.nextInt(6)) {
+                case 0:
+                    requirements.add(random.nextInt(requirements.size() + 1), pool.get(random.nextInt(pool.size())));
+                    break;
+                case 1:
+                    if (!requirements.isEmpty()) {
+                        requirements.remove(random.nextInt(requirements.size()));
+                    }
+                    break;
+                case 2:
+                    if (!requirements.isEmpty()) {
+                        requirements.set(random.nextInt(requirements.size()), pool.get(random.nextInt(pool.size())));
+                    }
+                    break;
+                case 3:
+                    Map<Requirement<?>, Integer> keys = new IdentityHashMap<>();
+                    requirements.forEach(requirement -> keys.putIfAbsent(requirement, random.nextInt(100)));
+                    requirements.sort(Comparator.comparing(keys::get));
+                    break;
+                default:
+                    pool.get(random.nextInt(pool.size())).dataProperty().set(random.nextBoolean() ? "" : "x");
+                    break;
+            }
+
+            List<RequirementError> expected = fullScan(step);
+            assertEquals(expected, step.getErrors());
+            assertEquals(expected, model.getErrors().subList(1, model.getErrors().size()));
+        }
+    }
+
+    /**
+     * @return die Fehlermeldungen in der Reihenfolge des jeweils ersten Vorkommens eines Requirements
+     */
+    private static List<RequirementError> fullScan(WizardStep step) {
+        Map<Requirement<?>, Boolean> seen = new IdentityHashMap<>();
+        Map<Requirement<?>, RequirementError> current = new IdentityHashMap<>();
+        step.getErrors().forEach(error -> current.put(error.getRequirement(), error));
+
+        List<RequirementError> result = new ArrayList<>();
+        for (Requirement<?> requirement : step.getRequirements()) {
+            if (seen.put(requirement, true) != null) {
+                continue;
+            }
+            Optional<String> error = requirement.errorProperty().getValue();
+            if (error != null && error.isPresent()) {
+                RequirementError entry = current.get(requirement);
+                assertEquals(error.get(), entry.getMessage());
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private static String messages(WizardStep step) {
+        return step.getErrors().stream().map(RequirementError::getMessage).collect(joining(" "));
+    }
+
+    private static WizardStep step(Requirement<?>... requirements) {
+        WizardStep step = new WizardStep("step", new Group());
+        step.getRequirements().addAll(requirements);
+        return step;
+    }
+
+    private static SimpleRequirement<String> requirement(String name) {
+        return new SimpleRequirement<>(value -> value.isEmpty() ? Optional.of(name) : Optional.empty());
+    }
+
+}
@@ -0,0 +1,134 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.SimpleRequirement;
+import javafx.scene.Group;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FinishPipelineTest {
+
+    @Test
+    public void collectsErrorsInOrderOfStepsAndRequirements() {
+        WizardStep first = step("first",
+                requirement("a", "ok", null),
+                requirement("b", "", null),
+                requirement("c", "ok", "final c"));
+        WizardStep second = step("second",
+                requirement("d", "ok", "final d"));
+
+        assertEquals(messages("required", "final c", "final d"), run(new WizardModel(first, second)));
+    }
+
+    @Test
+    public void requirementWithoutValueIsNotAnError() {
+        SimpleRequirement<String> requirement = requirement("a", null, "final a");
+
+        assertEquals(messages(), run(new WizardModel(step("step", requirement))));
+    }
+
+    @Test
+    public void failingFinalValidatorFailsOnlyItsRequirement() {
+        SimpleRequirement<String> failing = requirement("a", "ok", null);
+        failing.setFinalValidator(value -> {
+            throw new IllegalStateException("broken");
+        });
+
+        List<String> errors = run(new WizardModel(step("step", failing, requirement("b", "ok", "final b"))));
+
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0), errors.get(0).contains("broken"));
+        assertEquals("final b", errors.get(1));
+    }
+
+    @Test
+    public void skipsDisabledSteps() {
+        WizardStep skipped = step("skipped", requirement("a", "ok", "final a"));
+        skipped.setEnabled(false);
+
+        assertEquals(messages(), run(new WizardModel(step("step", requirement("b", "ok", null)), skipped)));
+    }
+
+    @Test
+    public void cancelledRunReportsNothing() {
+        Queue<Runnable> queue = new ArrayDeque<>();
+        FinishPipeline pipeline = new FinishPipeline(new WizardModel(step("step", requirement("a", "ok", "final a"))), Runnable::run);
+        Object[] result = { null };
+
+        pipeline.start(queue::add, errors -> result[0] = errors);
+        assertTrue(pipeline.runningProperty().get());
+        pipeline.cancel();
+        queue.forEach(Runnable::run);
+
+        assertNull(result[0]);
+        assertFalse(pipeline.runningProperty().get());
+    }
+
+    @Test
+    public void splitsLargeStepsIntoChunks() {
+        WizardStep step = new WizardStep("step", new Group());
+        for (int i = 0; i < 200; i++) {
+            step.getRequirements().add(requirement("r" + i, "ok", i % 50 == 0 ? "final " + i : null));
+        }
+        Deque<Runnable> queue = new ArrayDeque<>();
+        FinishPipeline pipeline = new FinishPipeline(new WizardModel(step), Runnable::run);
+        Object[] result = { null };
+
+        pipeline.start(queue::add, errors -> result[0] = errors);
+        assertTrue(queue.size() > 1);
+        // Die Pakete werden in umgekehrter Reihenfolge fertig, die Fehler bleiben trotzdem sortiert
+        while (!queue.isEmpty()) {
+            queue.pollLast().run();
+        }
+
+        @SuppressWarnings("unchecked")
+        List<RequirementError> errors = (List<RequirementError>) result[0];
+        assertEquals(messages("final 0", "final 50", "final 100", "final 150"),
+                errors.stream().map(RequirementError::getMessage).collect(toList()));
+        assertEquals(1.0, pipeline.progressProperty().get(), 0);
+    }
+
+    private static List<String> run(WizardModel model) {
+        FinishPipeline pipeline = new FinishPipeline(model, Runnable::run);
+        Object[] result = { null };
+        pipeline.start(Runnable::run, errors -> result[0] = errors);
+
+        @SuppressWarnings("unchecked")
+        List<RequirementError> errors = (List<RequirementError>) result[0];
+        return errors.stream().map(RequirementError::getMessage).collect(toList());
+    }
+
+    private static WizardStep step(String text, SimpleRequirement<?>... requirements) {
+        WizardStep step = new WizardStep(text, new Group());
+        step.getRequirements().addAll(requirements);
+        return step;
+    }
+
+    /**
+     * @param value bei einem leeren Text meldet schon die gewöhnliche Überprüfung einen Fehler
+     * @param finalError Fehlermeldung der abschließenden Überprüfung oder {@code null}
+     */
+    private static SimpleRequirement<String> requirement(String name, String value, String finalError) {
+        SimpleRequirement<String> requirement = new SimpleRequirement<>(v -> v.isEmpty() ? Optional.of("required") : Optional.empty());
+        requirement.setName(name);
+        requirement.setFinalValidator(v -> Optional.ofNullable(finalError));
+        requirement.dataProperty().set(value);
+        return requirement;
+    }
+
+    private static List<String> messages(String... messages) {
+        return Arrays.asList(messages);
+    }
+
+}
@@ -0,0 +1,109 @@
+package de.fluxparticle.wizardfx;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Die Elemente sind hier direkt ihre eigene Gültigkeit.
+ */
+public class ValidityCounterTest {
+
+    private final ObservableList<BooleanProperty> list = FXCollections.observableArrayList();
+
+    private ValidityCounter<BooleanProperty> counter;
+
+    @Before
+    public void setUp() {
+        counter = new ValidityCounter<>(Function.identity());
+        counter.track(list);
+    }
+
+    @Test
+    public void countsChangesOfValidity() {
+        BooleanProperty a = new SimpleBooleanProperty(true);
+        BooleanProperty b = new SimpleBooleanProperty(false);
+        list.addAll(a, b);
+
+        assertEquals(1, counter.getInvalidCount());
+        assertFalse(counter.allValidProperty().get());
+
+        b.set(true);
+        assertEquals(0, counter.getInvalidCount());
+        assertTrue(counter.allValidProperty().get());
+
+        a.set(false);
+        assertEquals(1, counter.getInvalidCount());
+    }
+
+    @Test
+    public void forgetsRemovedElements() {
+        BooleanProperty a = new SimpleBooleanProperty(false);
+        list.add(a);
+        list.remove(a);
+
+        assertEquals(0, counter.getInvalidCount());
+
+        a.set(true);
+        a.set(false);
+        assertEquals(0, counter.getInvalidCount());
+    }
+
+    @Test
+    public void countsDuplicatesSeparately() {
+        BooleanProperty a = new SimpleBooleanProperty(false);
+        list.addAll(a, a);
+        assertEquals(2, counter.getInvalidCount());
+
+        list.remove(0);
+        assertEquals(1, counter.getInvalidCount());
+
+        a.set(true);
+        assertEquals(0, counter.getInvalidCount());
+        a.set(false);
+        assertEquals(1, counter.getInvalidCount());
+    }
+
+    @Test
+    public void matchesFullScanAfterRandomChanges() {
+        Random random = new Random(42);
+        List<BooleanProperty> pool = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            pool.add(new SimpleBooleanProperty(random.nextBoolean()));
+        }
+        for (int i = 0; i < 5000; i++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    list.add(random.nextInt(list.size() + 1), pool.get(random.nextInt(pool.size())));
+                    break;
+                case 1:
+                    if (!list.isEmpty()) {
+                        list.remove(random.nextInt(list.size()));
+                    }
+                    break;
+                case 2:
+                    if (!list.isEmpty()) {
+                        list.set(random.nextInt(list.size()), pool.get(random.nextInt(pool.size())));
+                    }
+                    break;
+                default:
+                    BooleanProperty property = pool.get(random.nextInt(pool.size()));
+                    property.set(!property.get());
+            }
+            assertEquals(list.stream().filter(property -> !property.get()).count(), counter.getInvalidCount());
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.SimpleRequirement;
+import javafx.scene.Group;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class WizardJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void restoresValuesAndPosition() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("draft");
+        Draft draft = new Draft();
+        draft.name.dataProperty().set("Anna");
+        WizardJournal journal = start(draft, file);
+        draft.age.dataProperty().set(42);
+        draft.date.dataProperty().set(LocalDate.of(2026, 10, 17));
+        draft.model.next();
+        stop(journal);
+
+        Draft restored = new Draft();
+        assertTrue(new WizardJournal(restored.model, file).restore());
+
+        assertEquals("Anna", restored.name.dataProperty().get());
+        assertEquals(Integer.valueOf(42), restored.age.dataProperty().get());
+        assertEquals(LocalDate.of(2026, 10, 17), restored.date.dataProperty().get());
+        assertEquals(1, restored.model.getActive());
+        assertEquals(1, restored.model.getProgress());
+    }
+
+    @Test
+    public void corruptedLastRecordIsIgnored() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("draft");
+        Draft draft = new Draft();
+        draft.name.dataProperty().set("Anna");
+        WizardJournal journal = start(draft, file);
+        draft.name.dataProperty().set("Berta");
+        stop(journal);
+
+        // Das letzte Byte gehört zum angehängten Eintrag, dessen Prüfsumme danach nicht mehr stimmt
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        Draft restored = new Draft();
+        assertTrue(new WizardJournal(restored.model, file).restore());
+        assertEquals("Anna", restored.name.dataProperty().get());
+    }
+
+    @Test
+    public void truncatedLastRecordIsIgnored() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("draft");
+        Draft draft = new Draft();
+        draft.name.dataProperty().set("Anna");
+        WizardJournal journal = start(draft, file);
+        draft.name.dataProperty().set("Berta");
+        stop(journal);
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        Draft restored = new Draft();
+        assertTrue(new WizardJournal(restored.model, file).restore());
+        assertEquals("Anna", restored.name.dataProperty().get());
+    }
+
+    @Test
+    public void unsupportedValueIsReportedAndNotRestored() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("draft");
+        Draft draft = new Draft();
+        SimpleRequirement<Optional<String>> optional = new SimpleRequirement<>(value -> Optional.empty());
+        optional.setName("optional");
+        draft.model.getSteps().get(0).getRequirements().add(optional);
+        optional.dataProperty().set(Optional.of("x"));
+        WizardJournal journal = start(draft, file);
+        draft.name.dataProperty().set("Anna");
+        stop(journal);
+
+        assertNotNull(journal.getFailure());
+
+        Draft restored = new Draft();
+        SimpleRequirement<Optional<String>> restoredOptional = new SimpleRequirement<>(value -> Optional.empty());
+        restoredOptional.setName("optional");
+        restored.model.getSteps().get(0).getRequirements().add(restoredOptional);
+        assertTrue(new WizardJournal(restored.model, file).restore());
+
+        assertNull(restoredOptional.dataProperty().get());
+        assertEquals("Anna", restored.name.dataProperty().get());
+    }
+
+    @Test
+    public void deleteRemovesDraft() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("draft");
+        Draft draft = new Draft();
+        WizardJournal journal = start(draft, file);
+        draft.name.dataProperty().set("Anna");
+        journal.delete();
+        assertTrue(journal.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertFalse(Files.exists(file));
+        assertFalse(new WizardJournal(new Draft().model, file).restore());
+    }
+
+    private static WizardJournal start(Draft draft, Path file) {
+        WizardJournal journal = new WizardJournal(draft.model, file);
+        journal.start();
+        return journal;
+    }
+
+    private static void stop(WizardJournal journal) throws InterruptedException {
+        journal.dispose();
+        assertTrue(journal.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Ein Wizard mit zwei Schritten, dessen Requirements in jedem Test neu erzeugt werden
+     */
+    private static class Draft {
+
+        private final SimpleRequirement<String> name = requirement("name");
+
+        private final SimpleRequirement<Integer> age = requirement("age");
+
+        private final SimpleRequirement<LocalDate> date = requirement("date");
+
+        private final WizardModel model;
+
+        private Draft() {
+            WizardStep first = new WizardStep("first", new Group());
+            first.getRequirements().addAll(name, age);
+            WizardStep second = new WizardStep("second", new Group());
+            second.getRequirements().add(date);
+            model = new WizardModel(first, second);
+        }
+
+        private static <T> SimpleRequirement<T> requirement(String name) {
+            SimpleRequirement<T> requirement = new SimpleRequirement<>(value -> Optional.empty());
+            requirement.setName(name);
+            return requirement;
+        }
+
+    }
+
+}
@@ -0,0 +1,162 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.SimpleRequirement;
+import javafx.scene.Group;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class WizardModelTest {
+
+    @Test
+    public void nextNeedsValidActiveStep() {
+        SimpleRequirement<String> name = required();
+        WizardModel model = new WizardModel(step(name), step(), step());
+
+        assertFalse(model.canNextProperty().get());
+        assertFalse(model.next());
+        assertEquals(0, model.getActive());
+
+        name.dataProperty().set("x");
+        assertTrue(model.next());
+        assertEquals(1, model.getActive());
+        assertEquals(1, model.getProgress());
+    }
+
+    @Test
+    public void prevAndSelectStayWithinProgress() {
+        WizardModel model = new WizardModel(step(), step(), step());
+
+        assertFalse(model.canPrevProperty().get());
+        assertFalse(model.prev());
+        assertFalse(model.select(1));
+
+        model.next();
+        model.next();
+        assertTrue(model.select(0));
+        assertEquals(0, model.getActive());
+        assertEquals(2, model.getProgress());
+        assertTrue(model.select(2));
+        assertTrue(model.prev());
+        assertEquals(1, model.getActive());
+        assertFalse(model.select(3));
+        assertFalse(model.select(-1));
+    }
+
+    @Test
+    public void visitedStepsCanBePassedEvenIfInvalid() {
+        SimpleRequirement<String> name = required();
+        WizardModel model = new WizardModel(step(name), step(), step());
+        name.dataProperty().set("x");
+        model.next();
+        model.next();
+
+        // Ein schon bearbeiteter Schritt hält die Navigation nicht auf, nur der neuste
+        name.dataProperty().set("");
+        model.select(0);
+        assertTrue(model.next());
+        assertFalse(model.isAllStepsValid());
+    }
+
+    @Test
+    public void finishNeedsLastStepAndAllStepsValid() {
+        SimpleRequirement<String> first = required();
+        SimpleRequirement<String> last = required();
+        WizardModel model = new WizardModel(step(first), step(last));
+
+        first.dataProperty().set("x");
+        assertFalse(model.canFinishProperty().get());
+        model.next();
+        assertFalse(model.canNextProperty().get());
+        assertFalse(model.finish());
+
+        last.dataProperty().set("x");
+        assertTrue(model.finish());
+
+        first.dataProperty().set("");
+        assertFalse(model.finish());
+    }
+
+    @Test
+    public void disabledStepsAreSkipped() {
+        WizardStep first = step();
+        WizardStep skipped = step(required());
+        WizardStep last = step();
+        skipped.setEnabled(false);
+        WizardModel model = new WizardModel(first, skipped, last);
+
+        assertTrue(model.next());
+        assertSame(last, model.getActiveStep());
+        assertFalse(model.select(1));
+        assertTrue(model.finish());
+        assertTrue(model.prev());
+        assertSame(first, model.getActiveStep());
+    }
+
+    @Test
+    public void skippingActiveStepMovesToPreviousStep() {
+        WizardStep first = step();
+        WizardStep second = step();
+        WizardModel model = new WizardModel(first, second, step());
+        model.next();
+
+        second.setEnabled(false);
+        assertSame(first, model.getActiveStep());
+        assertEquals(1, model.getProgress());
+    }
+
+    @Test
+    public void activeStepSurvivesListChanges() {
+        WizardStep first = step();
+        WizardStep second = step();
+        WizardModel model = new WizardModel(first, second);
+        model.next();
+
+        model.getSteps().add(0, step());
+        assertSame(second, model.getActiveStep());
+        assertEquals(2, model.getProgress());
+
+        model.getSteps().remove(second);
+        assertSame(first, model.getActiveStep());
+    }
+
+    @Test
+    public void filledEmptyModelStartsAtFirstStep() {
+        WizardModel model = new WizardModel();
+        assertNull(model.getActiveStep());
+        assertFalse(model.next());
+        assertFalse(model.canFinishProperty().get());
+
+        WizardStep skipped = step();
+        WizardStep first = step();
+        skipped.setEnabled(false);
+        model.getSteps().addAll(skipped, first, step());
+
+        assertSame(first, model.getActiveStep());
+        assertEquals(1, model.getProgress());
+        assertFalse(model.canPrevProperty().get());
+        assertTrue(model.next());
+    }
+
+    private static WizardStep step(SimpleRequirement<?>... requirements) {
+        WizardStep step = new WizardStep("step", new Group());
+        step.getRequirements().addAll(requirements);
+        return step;
+    }
+
+    /**
+     * Ohne Wert gilt ein Requirement als gültig, daher startet es mit einem leeren Text
+     */
+    private static SimpleRequirement<String> required() {
+        SimpleRequirement<String> requirement = new SimpleRequirement<>(value -> value.isEmpty() ? Optional.of("required") : Optional.empty());
+        requirement.dataProperty().set("");
+        return requirement;
+    }
+
+}
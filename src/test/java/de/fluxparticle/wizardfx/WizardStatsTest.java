@@ -0,0 +1,58 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.Requirement;
+import de.fluxparticle.wizardfx.requirement.SimpleRequirement;
+import javafx.scene.Group;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WizardStatsTest {
+
+    @Test
+    public void sameNameInDifferentStepsIsNotMerged() {
+        WizardStats stats = new WizardStats();
+        WizardStep a = new WizardStep("a", new Group());
+        WizardStep b = new WizardStep("b", new Group());
+        Requirement<String> first = requirement("name");
+        Requirement<String> second = requirement("name");
+        a.getRequirements().add(first);
+        b.getRequirements().add(second);
+
+        stats.validated(a, first, 1000);
+        stats.validated(b, second, 3000);
+        stats.validated(b, second, 5000);
+
+        String[] lines = stats.getRequirementStatistics();
+        assertEquals(2, lines.length);
+        assertTrue(lines[0], lines[0].startsWith("a: name: n=1,"));
+        assertTrue(lines[1], lines[1].startsWith("b: name: n=2,"));
+    }
+
+    @Test
+    public void unnamedLabelIsStableWhenRequirementsAreRemoved() {
+        WizardStats stats = new WizardStats();
+        WizardStep step = new WizardStep("step", new Group());
+        Requirement<String> first = requirement(null);
+        Requirement<String> second = requirement(null);
+        step.getRequirements().addAll(first, second);
+
+        stats.validated(step, second, 1000);
+        step.getRequirements().remove(first);
+        stats.validated(step, second, 1000);
+
+        String[] lines = stats.getRequirementStatistics();
+        assertEquals(1, lines.length);
+        assertTrue(lines[0], lines[0].startsWith("step[1]: n=2,"));
+    }
+
+    private static Requirement<String> requirement(String name) {
+        Requirement<String> requirement = new SimpleRequirement<>(value -> Optional.empty());
+        requirement.setName(name);
+        return requirement;
+    }
+
+}
@@ -17,15 +17,19 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.Tooltip;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.converter.DefaultStringConverter;
 import org.fxmisc.easybind.EasyBind;
 import org.fxmisc.easybind.monadic.MonadicBinding;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
+import static de.fluxparticle.wizardfx.requirement.Validators.*;
+
 /**
  * Created by sreinck on 15.09.17.
  */
@@ -35,10 +39,18 @@ public class WizardTest extends Application {
 
     private static final String ERROR_DATE_FORMAT = "must be date of form YYYY-MM-DD";
 
+    // So viele geparste Datumswerte werden pro Feld zwischengespeichert
+    private static final int DATE_CACHE_SIZE = 32;
+
     private static final Pattern EMAIL = Pattern.compile("[a-z.+]+@[a-z.]+\\.[a-z]+");
 
     private static final Pattern PHONE = Pattern.compile("\\+?[0-9 ]+");
 
+    private static final Pattern SEAT = Pattern.compile("[0-9]{1,2}[A-F]");
+
+    // So viele Sitzplatzwünsche gibt es, genug um die virtualisierte Liste zu zeigen
+    private static final int SEATS = 2000;
+
     private static final String STYLE_NORMAL = "";
 
     private static final String STYLE_ERROR = "-fx-background-color: lightcoral";
@@ -63,38 +75,47 @@ public class WizardTest extends Application {
 
     @Override
     public void start(Stage primaryStage) throws Exception {
-        Wizard root = new Wizard(step1(), step2());
+        Wizard root = new Wizard(step1(), step2(), step3());
         root.setOnFinish(event -> Platform.exit());
 
+        // Vor dem Abschließen wird noch einmal alles parallel überprüft, inklusive der teuren Überprüfungen
+        root.setFinishExecutor(ForkJoinPool.commonPool());
+
         primaryStage.setScene(new Scene(root, 400, 300));
         primaryStage.setTitle("Test Wizard");
         primaryStage.show();
     }
 
     private static WizardStep step1() {
-        VBox content = new VBox(10);
-        content.setPadding(new Insets(10));
+        // Name muss einfach nur vorhanden sein
+        SimpleRequirement<String> nameRequirement = new SimpleRequirement<>(notEmpty("required"));
+        nameRequirement.setInitialValue("");
 
-        WizardStep step = new WizardStep("Personal Data", content);
+        // Email muss vorhanden sein und dem Pattern genügen. Es werden jeweils unterschiedliche Fehlermeldungen angezeigt.
+        SimpleRequirement<String> emailRequirement = new SimpleRequirement<>(firstError(notEmpty("required"), matches(EMAIL, "must be valid email")));
+        emailRequirement.setInitialValue("");
 
-        {
-            // Name muss einfach nur vorhanden sein
-            SimpleRequirement<String> requirement = new SimpleRequirement<>(str -> str.isEmpty() ? Optional.of("required") : Optional.empty());
-            step.getRequirements().add(requirement);
-            content.getChildren().add(textfield("Name", requirement));
-        }
-        {
-            // Email muss vorhanden sein und dem Pattern genügen. Es werden jeweils unterschiedliche Fehlermeldungen angezeigt.
-            SimpleRequirement<String> requirement = new SimpleRequirement<>(str -> str.isEmpty() ? Optional.of("required") : EMAIL.matcher(str).matches() ? Optional.empty() : Optional.of("must be valid email"));
-            step.getRequirements().add(requirement);
-            content.getChildren().add(textfield("Email", requirement));
-        }
-        {
-            // Telefonnummer muss nicht vorhanden sein, aber wenn, dann muss sie richtig sein.
-            SimpleRequirement<String> requirement = new SimpleRequirement<>(str -> str.isEmpty() ? Optional.empty() : PHONE.matcher(str).matches() ? Optional.empty() : Optional.of("must be valid phone number"));
-            step.getRequirements().add(requirement);
-            content.getChildren().add(textfield("Phone", requirement));
-        }
+        // Ob die Domain Mails annimmt, wäre eine teure Überprüfung und wird daher erst beim Abschließen gemacht
+        emailRequirement.setFinalValidator(email -> email.endsWith("@example.com") ? Optional.of("domain does not accept mail") : Optional.empty());
+
+        // Telefonnummer muss nicht vorhanden sein, aber wenn, dann muss sie richtig sein.
+        SimpleRequirement<String> phoneRequirement = new SimpleRequirement<>(when(str -> !str.isEmpty(), matches(PHONE, "must be valid phone number")));
+        phoneRequirement.setInitialValue("");
+
+        /*
+         * Der Inhalt wird erst erzeugt, wenn der Schritt angezeigt wird. Die Requirements bleiben dabei erhalten,
+         * die Textfelder werden nur an sie gebunden.
+         */
+        WizardStep step = new WizardStep("Personal Data", () -> {
+            VBox content = new VBox(10);
+            content.setPadding(new Insets(10));
+            content.getChildren().add(textfield("Name", nameRequirement));
+            content.getChildren().add(textfield("Email", emailRequirement));
+            content.getChildren().add(textfield("Phone", phoneRequirement));
+            return content;
+        });
+
+        step.getRequirements().addAll(nameRequirement, emailRequirement, phoneRequirement);
 
         return step;
     }
@@ -116,6 +137,12 @@ public class WizardTest extends Application {
             cbFlightType.getItems().addAll(FlightType.values());
             cbFlightType.setValue(FlightType.ONE_WAY_FLIGHT);
             content.getChildren().add(cbFlightType);
+
+            // Jeder Flugtyp ist gültig, durch den Namen taucht der Flugtyp aber in den Datensätzen auf
+            SimpleRequirement<FlightType> flightTypeRequirement = new SimpleRequirement<>(flightType -> Optional.empty());
+            flightTypeRequirement.setName("flight type");
+            flightTypeRequirement.dataProperty().bindBidirectional(cbFlightType.valueProperty());
+            step.getRequirements().add(flightTypeRequirement);
         }
 
         // Startwert für die Datumsfelder ist das aktuelle Datum
@@ -133,42 +160,60 @@ public class WizardTest extends Application {
         {
             /*
              * Durch das TransformRequirement wird der String erst in ein Optional<LocalDate> konvertiert
-             * und dann in die Überprüfung oben gegeben.
+             * und dann in die Überprüfung oben gegeben. Das Ergebnis der Konvertierung wird zwischengespeichert.
              */
-            TransformRequirement<String, Optional<LocalDate>> transformedStartDateRequirement = new TransformRequirement<>(WizardTest::stringToDate, startDateRequirement);
-            Node tfStartDate = textfield("start date", initDate, transformedStartDateRequirement);
+            TransformRequirement<String, Optional<LocalDate>> transformedStartDateRequirement = new TransformRequirement<>(WizardTest::stringToDate, startDateRequirement, DATE_CACHE_SIZE);
+            transformedStartDateRequirement.setName("start date");
+            transformedStartDateRequirement.setInitialValue(initDate);
+            Node tfStartDate = textfield("start date", transformedStartDateRequirement);
             step.getRequirements().add(transformedStartDateRequirement);
             content.getChildren().add(tfStartDate);
         }
 
         /*
          * Wenn das Rückflugdatum vorhanden (also gültig) ist, wird geprüft, ob es vor dem Startdatum liegt
-         * und ggf. eine andere Fehlermeldung ausgegeben.
+         * und ggf. eine andere Fehlermeldung ausgegeben. Bei einem einfachen Flug ist das Feld deaktiviert
+         * und wird gar nicht erst geprüft.
          *
          * Hierfür habe ich das TransformRequirement um auf das bereits konvertierte Startdatum zugreifen zu können.
+         * Startdatum und Flugtyp werden nur gelesen. Durch dependsOn wird das Rückflugdatum genau einmal erneut geprüft,
+         * sobald sich eines von beiden ändert.
          */
-        Requirement<Optional<LocalDate>> returnDateRequirement = new Requirement<>(monadicObservableValue -> {
-            return monadicObservableValue.flatMap((Optional<LocalDate> returnDate) -> {
-                if (returnDate.isPresent()) {
-                    return EasyBind.combine(startDateRequirement.dataProperty(), oneWayFlight, (startDate, oneWay) -> {
-                        if (!oneWay && startDate.isPresent() && returnDate.get().isBefore(startDate.get())) {
-                            return Optional.of("return date must not be before start date");
-                        } else {
-                            return Optional.<String>empty();
-                        }
-                    });
-                } else {
-                    return new SimpleObjectProperty<>(Optional.of(ERROR_DATE_FORMAT));
-                }
-            });
-        });
+        SimpleRequirement<Optional<LocalDate>> returnDateRequirement = new SimpleRequirement<>(when(oneWayFlight.not(), firstError(
+                allOf(ERROR_DATE_FORMAT, Optional::isPresent),
+                allOf("return date must not be before start date", returnDate -> {
+                    Optional<LocalDate> startDate = startDateRequirement.dataProperty().get();
+                    return startDate == null || !startDate.isPresent() || !returnDate.get().isBefore(startDate.get());
+                })
+        )));
+        returnDateRequirement.dependsOn(startDateRequirement);
+        returnDateRequirement.dependsOn(oneWayFlight);
 
         {
             /*
              * Hier das gleiche wie für das Startdatum-Feld. Nur die Überprüfung oben ist ein wenig komplizierter.
              */
-            TransformRequirement<String, Optional<LocalDate>> transformedReturnDateRequirement = new TransformRequirement<>(WizardTest::stringToDate, returnDateRequirement);
-            Node tfReturnDate = textfield("return date", initDate, transformedReturnDateRequirement, oneWayFlight);
+            TransformRequirement<String, Optional<LocalDate>> transformedReturnDateRequirement = new TransformRequirement<>(WizardTest::stringToDate, returnDateRequirement, DATE_CACHE_SIZE);
+            transformedReturnDateRequirement.setName("return date");
+            transformedReturnDateRequirement.setInitialValue(initDate);
+
+            // Beim Import ganzer Datensätze kommen Startdatum und Flugtyp aus dem Datensatz statt aus den Properties
+            transformedReturnDateRequirement.setRecordValidator((returnDate, record) -> {
+                if (record.get("flight type") == FlightType.ONE_WAY_FLIGHT) {
+                    return Optional.empty();
+                }
+                Optional<LocalDate> parsedReturnDate = stringToDate(returnDate);
+                if (!parsedReturnDate.isPresent()) {
+                    return Optional.of(ERROR_DATE_FORMAT);
+                }
+                Object startDate = record.get("start date");
+                Optional<LocalDate> parsedStartDate = startDate instanceof String ? stringToDate((String) startDate) : Optional.empty();
+                if (parsedStartDate.isPresent() && parsedReturnDate.get().isBefore(parsedStartDate.get())) {
+                    return Optional.of("return date must not be before start date");
+                }
+                return Optional.empty();
+            });
+            Node tfReturnDate = textfield("return date", transformedReturnDateRequirement, oneWayFlight);
             step.getRequirements().add(transformedReturnDateRequirement);
             content.getChildren().add(tfReturnDate);
         }
@@ -176,23 +221,37 @@ public class WizardTest extends Application {
         return step;
     }
 
+    private static WizardStep step3() {
+        /*
+         * Für jeden Passagier kann ein Sitzplatz gewünscht werden. Es werden nur die sichtbaren Zeilen erzeugt,
+         * überprüft werden aber alle Requirements.
+         */
+        WizardStep step = RequirementListView.step("Seats", new DefaultStringConverter());
+
+        for (int i = 1; i <= SEATS; i++) {
+            SimpleRequirement<String> seatRequirement = new SimpleRequirement<>(when(str -> !str.isEmpty(), matches(SEAT, "must be valid seat like 12C")));
+            seatRequirement.setName("Seat for passenger " + i);
+            seatRequirement.setInitialValue("");
+            step.getRequirements().add(seatRequirement);
+        }
+
+        return step;
+    }
+
     private static Function<ObservableValue<String>, ObservableValue<Optional<String>>> simpleValidator(Function<String, Optional<String>> validator) {
         return observableStringValue -> EasyBind.map(observableStringValue, validator);
     }
 
     private static Node textfield(String name, Requirement<String> requirement) {
-        return textfield(name, "", requirement);
-    }
-
-    private static Node textfield(String name, String text, Requirement<String> requirement) {
-        return textfield(name, text, requirement, new SimpleObjectProperty<>(false));
+        return textfield(name, requirement, new SimpleObjectProperty<>(false));
     }
 
-    private static Node textfield(String name, String text, Requirement<String> requirement, ObservableValue<Boolean> disable) {
-        TextField textField = new TextField(text);
+    private static Node textfield(String name, Requirement<String> requirement, ObservableValue<Boolean> disable) {
+        TextField textField = new TextField();
         textField.disableProperty().bind(disable);
 
-        requirement.dataProperty().bind(textField.textProperty());
+        // Das Textfeld übernimmt den Wert des Requirements, damit es jederzeit neu erzeugt werden kann
+        textField.textProperty().bindBidirectional(requirement.dataProperty());
 
         ObservableValue<Optional<String>> errorText = requirement.errorProperty();
 
@@ -0,0 +1,130 @@
+package de.fluxparticle.wizardfx;
+
+import de.fluxparticle.wizardfx.requirement.Requirement;
+import de.fluxparticle.wizardfx.requirement.SimpleRequirement;
+import javafx.scene.Group;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WizardValidatorTest {
+
+    @Test
+    public void reportsErrorsPerStep() {
+        WizardValidator validator = new WizardValidator(new WizardModel(step(name()), step(age())));
+
+        WizardValidator.Report report = validator.validate(record("", 12));
+
+        assertFalse(report.isValid());
+        assertEquals(singletonMap("name", "required"), report.getErrors(0));
+        assertEquals(singletonMap("age", "too young"), report.getErrors(1));
+        assertTrue(validator.validate(record("x", 18)).isValid());
+    }
+
+    @Test
+    public void missingValuesAndUnnamedRequirementsAreNotValidated() {
+        SimpleRequirement<String> unnamed = new SimpleRequirement<>(value -> Optional.of("always"));
+        WizardValidator validator = new WizardValidator(new WizardModel(step(name(), unnamed), step(age())));
+
+        assertTrue(validator.validate(record("x", null)).isValid());
+    }
+
+    @Test
+    public void recordValidatorSeesOtherValues() {
+        SimpleRequirement<String> name = name();
+        name.setRecordValidator((value, record) -> value.equals(record.get("other")) ? Optional.of("same") : Optional.empty());
+        WizardValidator validator = new WizardValidator(new WizardModel(step(name)));
+
+        Map<String, Object> record = record("x", null);
+        record.put("other", "x");
+
+        assertEquals(singletonMap("name", "same"), validator.validate(record).getErrors(0));
+    }
+
+    @Test
+    public void failingValidatorsAreReportedAsFailures() {
+        SimpleRequirement<String> broken = new SimpleRequirement<>(value -> {
+            throw new IllegalStateException("broken");
+        });
+        broken.setName("broken");
+        WizardValidator validator = new WizardValidator(new WizardModel(step(broken, name(), age())));
+
+        Map<String, Object> record = record("", "not a number");
+        record.put("broken", "x");
+        WizardValidator.Report report = validator.validate(record);
+
+        assertEquals(singletonMap("name", "required"), report.getErrors(0));
+        assertTrue(report.getFailures().get("broken") instanceof IllegalStateException);
+        assertTrue(report.getFailures().get("age") instanceof ClassCastException);
+        assertEquals(2, report.getFailures().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bindingOnlyRequirementNeedsRecordValidator() {
+        Requirement<String> requirement = new Requirement<>(input -> input.map(value -> Optional.<String>empty()));
+        requirement.setName("binding");
+
+        new WizardValidator(new WizardModel(step(requirement)));
+    }
+
+    @Test
+    public void disabledStepsAreNotValidated() {
+        WizardStep skipped = step(age());
+        skipped.setEnabled(false);
+        WizardValidator validator = new WizardValidator(new WizardModel(step(name()), skipped));
+
+        WizardValidator.Report report = validator.validate(record("", 12));
+
+        assertEquals(singletonMap("name", "required"), report.getErrors(0));
+        assertTrue(report.getErrors(1).isEmpty());
+    }
+
+    @Test
+    public void validatesAllRecordsInPool() {
+        WizardValidator validator = new WizardValidator(new WizardModel(step(name()), step(age())), new ForkJoinPool(4));
+        ConcurrentLinkedQueue<WizardValidator.Report> reports = new ConcurrentLinkedQueue<>();
+
+        WizardValidator.Summary summary = validator.validateAll(
+                IntStream.range(0, 1000).mapToObj(i -> record("x", i % 100)), reports::add);
+
+        assertEquals(1000, summary.getRecords());
+        assertEquals(1000, reports.size());
+        assertEquals(180, reports.stream().filter(report -> !report.isValid()).count());
+    }
+
+    private static WizardStep step(Requirement<?>... requirements) {
+        WizardStep step = new WizardStep("step", new Group());
+        step.getRequirements().addAll(requirements);
+        return step;
+    }
+
+    private static SimpleRequirement<String> name() {
+        SimpleRequirement<String> name = new SimpleRequirement<>(value -> value.isEmpty() ? Optional.of("required") : Optional.empty());
+        name.setName("name");
+        return name;
+    }
+
+    private static SimpleRequirement<Integer> age() {
+        SimpleRequirement<Integer> age = new SimpleRequirement<>(value -> value < 18 ? Optional.of("too young") : Optional.empty());
+        age.setName("age");
+        return age;
+    }
+
+    private static Map<String, Object> record(Object name, Object age) {
+        Map<String, Object> record = new HashMap<>();
+        record.put("name", name);
+        record.put("age", age);
+        return record;
+    }
+
+}
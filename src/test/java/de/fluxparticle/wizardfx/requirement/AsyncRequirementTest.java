@@ -0,0 +1,89 @@
+package de.fluxparticle.wizardfx.requirement;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Überprüfungen laufen hier auf einer Warteschlange, die der Test selbst abarbeitet.
+ */
+public class AsyncRequirementTest {
+
+    private final Queue<Runnable> executor = new ArrayDeque<>();
+
+    private AsyncRequirement<String> requirement;
+
+    @Before
+    public void setUp() {
+        requirement = new AsyncRequirement<>(
+                value -> value.isEmpty() ? Optional.of("required") : Optional.empty(),
+                executor::add,
+                Runnable::run);
+    }
+
+    @Test
+    public void isPendingUntilValidationRuns() {
+        requirement.dataProperty().set("");
+
+        assertTrue(requirement.pendingProperty().get());
+
+        runAll();
+
+        assertFalse(requirement.pendingProperty().get());
+        assertEquals(Optional.of("required"), requirement.errorProperty().getValue());
+    }
+
+    @Test
+    public void discardsResultOfOutdatedValue() {
+        requirement.dataProperty().set("");
+        Runnable outdated = executor.poll();
+        requirement.dataProperty().set("x");
+
+        outdated.run();
+        assertTrue(requirement.pendingProperty().get());
+
+        runAll();
+        assertFalse(requirement.pendingProperty().get());
+        assertEquals(Optional.empty(), requirement.errorProperty().getValue());
+    }
+
+    @Test
+    public void reportsExceptionWithoutMessage() {
+        AsyncRequirement<String> failing = new AsyncRequirement<>(value -> {
+            throw new IllegalStateException();
+        }, executor::add, Runnable::run);
+        failing.dataProperty().set("x");
+
+        runAll();
+
+        assertFalse(failing.pendingProperty().get());
+        assertEquals(Optional.of(IllegalStateException.class.getName()), failing.errorProperty().getValue());
+    }
+
+    @Test
+    public void reportsRejectedExecution() {
+        AsyncRequirement<String> rejected = new AsyncRequirement<>(value -> Optional.empty(), task -> {
+            throw new RejectedExecutionException("shut down");
+        }, Runnable::run);
+        rejected.dataProperty().set("x");
+
+        assertFalse(rejected.pendingProperty().get());
+        assertTrue(rejected.errorProperty().getValue().isPresent());
+        assertFalse(rejected.validProperty().get());
+    }
+
+    private void runAll() {
+        while (!executor.isEmpty()) {
+            executor.poll().run();
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package de.fluxparticle.wizardfx.requirement;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MemoizerTest {
+
+    @Test
+    public void callsFunctionOncePerValue() {
+        List<String> calls = new ArrayList<>();
+        Memoizer<String, Integer> memoizer = new Memoizer<>(counting(calls, String::length), 10);
+
+        assertEquals(Integer.valueOf(3), memoizer.apply("abc"));
+        assertEquals(Integer.valueOf(3), memoizer.apply("abc"));
+        assertEquals(Integer.valueOf(1), memoizer.apply("x"));
+
+        assertEquals(asList("abc", "x"), calls);
+        assertEquals(1, memoizer.getHits());
+        assertEquals(2, memoizer.getMisses());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        List<String> calls = new ArrayList<>();
+        Memoizer<String, Integer> memoizer = new Memoizer<>(counting(calls, String::length), 2);
+
+        memoizer.apply("a");
+        memoizer.apply("b");
+        memoizer.apply("a");
+        memoizer.apply("c");
+        calls.clear();
+
+        memoizer.apply("a");
+        memoizer.apply("b");
+
+        assertEquals(asList("b"), calls);
+        assertEquals(2, memoizer.size());
+    }
+
+    @Test
+    public void remembersNullResults() {
+        List<String> calls = new ArrayList<>();
+        Memoizer<String, Integer> memoizer = new Memoizer<>(counting(calls, value -> null), 10);
+
+        assertNull(memoizer.apply("a"));
+        assertNull(memoizer.apply("a"));
+
+        assertEquals(asList("a"), calls);
+    }
+
+    @Test
+    public void resultComputedBeforeClearIsNotStored() {
+        AtomicReference<Memoizer<String, Integer>> memoizer = new AtomicReference<>();
+        memoizer.set(new Memoizer<>(value -> {
+            // z.B. ein anderer Thread, der währenddessen einen Wert ändert, von dem die Funktion abhängt
+            memoizer.get().clear();
+            return value.length();
+        }, 10));
+
+        assertEquals(Integer.valueOf(3), memoizer.get().apply("abc"));
+        assertEquals(0, memoizer.get().size());
+    }
+
+    private static <T, R> Function<T, R> counting(List<T> calls, Function<T, R> function) {
+        return value -> {
+            calls.add(value);
+            return function.apply(value);
+        };
+    }
+
+}
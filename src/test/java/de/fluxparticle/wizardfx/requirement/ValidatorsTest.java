@@ -0,0 +1,99 @@
+package de.fluxparticle.wizardfx.requirement;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static de.fluxparticle.wizardfx.requirement.Validators.*;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ValidatorsTest {
+
+    @Test
+    public void firstErrorStopsAtFirstError() {
+        List<String> calls = new ArrayList<>();
+        Function<String, Optional<String>> validator = firstError(
+                logged(calls, "a", Optional.empty()),
+                logged(calls, "b", Optional.of("b")),
+                logged(calls, "c", Optional.of("c")));
+
+        assertEquals(Optional.of("b"), validator.apply("x"));
+        assertEquals(asList("a", "b"), calls);
+    }
+
+    @Test
+    public void allOfStopsAtFirstFailedCondition() {
+        List<String> calls = new ArrayList<>();
+        Function<String, Optional<String>> validator = allOf("error",
+                logged(calls, "a", true),
+                logged(calls, "b", false),
+                logged(calls, "c", false));
+
+        assertEquals(Optional.of("error"), validator.apply("x"));
+        assertEquals(asList("a", "b"), calls);
+    }
+
+    @Test
+    public void anyOfStopsAtFirstMetCondition() {
+        List<String> calls = new ArrayList<>();
+        Function<String, Optional<String>> validator = anyOf("error",
+                logged(calls, "a", false),
+                logged(calls, "b", true),
+                logged(calls, "c", true));
+
+        assertEquals(Optional.empty(), validator.apply("x"));
+        assertEquals(asList("a", "b"), calls);
+        assertEquals(Optional.of("error"), anyOf("error", value -> false).apply("x"));
+    }
+
+    @Test
+    public void errorIsNotAllocatedPerCall() {
+        Function<String, Optional<String>> validator = notEmpty("required");
+
+        assertSame(validator.apply(""), validator.apply(""));
+    }
+
+    @Test
+    public void whenSkipsValidatorIfConditionFails() {
+        Function<String, Optional<String>> validator = when((String value) -> !value.isEmpty(),
+                matches(Pattern.compile("[0-9]+"), "digits"));
+
+        assertEquals(Optional.empty(), validator.apply(""));
+        assertEquals(Optional.of("digits"), validator.apply("x"));
+        assertEquals(Optional.empty(), validator.apply("12"));
+    }
+
+    @Test
+    public void whenFollowsObservableCondition() {
+        BooleanProperty enabled = new SimpleBooleanProperty(false);
+        Function<String, Optional<String>> validator = when(enabled, notEmpty("required"));
+
+        assertEquals(Optional.empty(), validator.apply(""));
+        enabled.set(true);
+        assertEquals(Optional.of("required"), validator.apply(""));
+    }
+
+    private static Function<String, Optional<String>> logged(List<String> calls, String name, Optional<String> result) {
+        return value -> {
+            calls.add(name);
+            return result;
+        };
+    }
+
+    private static Predicate<String> logged(List<String> calls, String name, boolean result) {
+        return value -> {
+            calls.add(name);
+            return result;
+        };
+    }
+
+}